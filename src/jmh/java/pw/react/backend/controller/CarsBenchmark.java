@@ -0,0 +1,103 @@
+package pw.react.backend.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import pw.react.backend.dto.CarsDTO;
+import pw.react.backend.dto.PageDTO;
+import pw.react.backend.models.Car;
+import pw.react.backend.models.Location;
+import pw.react.backend.models.Model;
+import pw.react.backend.utils.Utils;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/// The `/api/cars/search` path without Carly: reading the fleet, sorting it by distance, and the
+/// distance itself. The sort works in place, so every invocation sorts a fresh copy of the fleet.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarsBenchmark {
+
+    private static final double LATITUDE = 52.2297;
+    private static final double LONGITUDE = 21.0122;
+
+    @Param({"10", "100", "1000", "10000"})
+    private int fleetSize;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private byte[] fleetJson;
+    private List<Car> fleet;
+
+    @Setup
+    public void setUp() throws IOException {
+        Random random = new Random(42);
+        fleet = new ArrayList<>(fleetSize);
+        for (int i = 0; i < fleetSize; i++) {
+            fleet.add(car(i, random));
+        }
+        CarsDTO dto = new CarsDTO();
+        dto.content = fleet;
+        dto.page = new PageDTO();
+        dto.page.size = fleetSize;
+        dto.page.totalElements = fleetSize;
+        dto.page.totalPages = 1;
+        fleetJson = objectMapper.writeValueAsBytes(dto);
+    }
+
+    @Benchmark
+    public CarsDTO deserializeFleet() throws IOException {
+        return objectMapper.readValue(fleetJson, CarsDTO.class);
+    }
+
+    @Benchmark
+    public List<Car> sortByDistance() {
+        CarsDTO dto = new CarsDTO();
+        dto.content = new ArrayList<>(fleet);
+        return CarsController.getCarList(LONGITUDE, LATITUDE, dto);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public double haversine() {
+        double sum = 0;
+        for (int i = 0; i < 1000; i++) {
+            Location location = fleet.get(i % fleet.size()).location;
+            sum += Utils.haversine(location.latitude, location.longitude, LATITUDE, LONGITUDE);
+        }
+        return sum;
+    }
+
+    private static Car car(int i, Random random) {
+        Model model = new Model();
+        model.id = "model-" + (i % 20);
+        model.brandName = "Brand " + (i % 7);
+        model.name = "Model " + (i % 20);
+        model.productionYear = 2015 + i % 10;
+        model.fuelType = i % 3 == 0 ? "ELECTRIC" : "PETROL";
+        model.fuelCapacity = 50;
+        model.seatCount = 5;
+        model.doorCount = 4;
+        model.dailyRate = 100 + i % 50;
+
+        Location location = new Location();
+        location.id = "location-" + i;
+        location.fullAddress = "Street " + i + ", Warsaw";
+        location.latitude = LATITUDE + (random.nextDouble() - 0.5);
+        location.longitude = LONGITUDE + (random.nextDouble() - 0.5);
+
+        Car car = new Car();
+        car.id = "car-" + i;
+        car.model = model;
+        car.location = location;
+        car.imageUrl = "https://example.com/cars/" + i + ".jpg";
+        return car;
+    }
+}
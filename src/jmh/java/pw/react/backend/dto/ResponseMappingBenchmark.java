@@ -0,0 +1,98 @@
+package pw.react.backend.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.models.Reservation;
+import pw.react.backend.models.User;
+import pw.react.backend.utils.UserRole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// Entity -> DTO mapping and JSON serialization of one page of reservations and parking spots,
+/// with an ObjectMapper configured the way Spring Boot configures the one behind the controllers.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"10", "100"})
+    private int pageSize;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private List<Reservation> reservations;
+    private List<ParkingSpot> parkingSpots;
+    private List<ReturnReservationDTO> reservationDtos;
+    private List<ReturnParkingSpotDTO> parkingSpotDtos;
+
+    @Setup
+    public void setUp() {
+        reservations = new ArrayList<>(pageSize);
+        parkingSpots = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            ParkingArea area = new ParkingArea();
+            area.setId((long) i);
+            area.setName("Area " + i);
+            area.setAddress("Street " + i);
+            area.setCity("Warsaw");
+            area.setHourlyRate(new BigDecimal("12.50"));
+
+            ParkingSpot spot = new ParkingSpot();
+            spot.setId((long) i);
+            spot.setSpotNumber("A" + i);
+            spot.setParkingArea(area);
+            spot.setIsAvailable(i % 2 == 0);
+            parkingSpots.add(spot);
+
+            User user = new User();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setRole(UserRole.USER);
+
+            Reservation reservation = new Reservation();
+            reservation.setId((long) i);
+            reservation.setParkingSpot(spot);
+            reservation.setUser(user);
+            reservation.setStartTime(LocalDateTime.of(2025, 3, 1, 10, 0).plusHours(i));
+            reservation.setEndTime(LocalDateTime.of(2025, 3, 1, 12, 0).plusHours(i));
+            reservation.setTotalCost(new BigDecimal("25.00"));
+            reservation.setCreatedAt(LocalDateTime.of(2025, 2, 1, 9, 30));
+            reservations.add(reservation);
+        }
+        reservationDtos = mapReservations();
+        parkingSpotDtos = mapParkingSpots();
+    }
+
+    @Benchmark
+    public List<ReturnReservationDTO> mapReservations() {
+        return reservations.stream().map(ReturnReservationDTO::fromModel).toList();
+    }
+
+    @Benchmark
+    public List<ReturnParkingSpotDTO> mapParkingSpots() {
+        return parkingSpots.stream().map(ReturnParkingSpotDTO::fromModel).toList();
+    }
+
+    @Benchmark
+    public byte[] serializeReservations() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(reservationDtos);
+    }
+
+    @Benchmark
+    public byte[] serializeParkingSpots() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(parkingSpotDtos);
+    }
+}
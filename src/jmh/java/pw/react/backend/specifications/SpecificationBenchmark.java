@@ -0,0 +1,85 @@
+package pw.react.backend.specifications;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Sort;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.models.Reservation;
+import pw.react.backend.models.User;
+
+import java.util.concurrent.TimeUnit;
+
+/// Building the Specifications behind the search endpoints and turning them into criteria predicates,
+/// i.e. everything up to SQL rendering. Hibernate needs a dialect for that, so the session factory
+/// runs on an in-memory H2 in MySQL mode; no statement is executed.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpecificationBenchmark {
+
+    private SessionFactory sessionFactory;
+    private CriteriaBuilder criteriaBuilder;
+    private Object[] cursor;
+
+    @Setup
+    public void setUp() {
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .applySetting(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:specifications;MODE=MySQL;NON_KEYWORDS=USER")
+                .applySetting(AvailableSettings.JAKARTA_JDBC_USER, "sa")
+                .build();
+        sessionFactory = new MetadataSources(registry)
+                .addAnnotatedClasses(User.class, ParkingArea.class, ParkingSpot.class, Reservation.class)
+                .buildMetadata()
+                .buildSessionFactory();
+        criteriaBuilder = sessionFactory.getCriteriaBuilder();
+
+        ParkingArea area = new ParkingArea();
+        area.setId(17L);
+        ParkingSpot spot = new ParkingSpot();
+        spot.setId(1234L);
+        spot.setSpotNumber("B12");
+        spot.setParkingArea(area);
+        cursor = ParkingSpotSortKey.PARKING_AREA.parseCursor(ParkingSpotSortKey.PARKING_AREA.cursorOf(spot));
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Predicate userFullName() {
+        CriteriaQuery<User> query = criteriaBuilder.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+        return UserSpecification.hasFullName("Jan Kowalski").toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate parkingAreaNameAndCity() {
+        CriteriaQuery<ParkingArea> query = criteriaBuilder.createQuery(ParkingArea.class);
+        Root<ParkingArea> root = query.from(ParkingArea.class);
+        return ParkingAreaSpecification.hasName("centrum")
+                .and(ParkingAreaSpecification.hasCity("warsaw"))
+                .toPredicate(root, query, criteriaBuilder);
+    }
+
+    @Benchmark
+    public Predicate parkingSpotSeekPage() {
+        CriteriaQuery<ParkingSpot> query = criteriaBuilder.createQuery(ParkingSpot.class);
+        Root<ParkingSpot> root = query.from(ParkingSpot.class);
+        return ParkingSpotSpecification.after(ParkingSpotSortKey.PARKING_AREA, Sort.Direction.ASC, cursor)
+                .toPredicate(root, query, criteriaBuilder);
+    }
+}
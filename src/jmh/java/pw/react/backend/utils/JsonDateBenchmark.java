@@ -0,0 +1,55 @@
+package pw.react.backend.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/// JsonDateSerializer / JsonDateDeserializer on a one-field object, as used by ExceptionDetails.
+/// The deserializer reads ISO-8601 without offset, the serializer writes its own format,
+/// so each direction gets its own input.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonDateBenchmark {
+
+    public static class Timestamped {
+        @JsonSerialize(using = JsonDateSerializer.class)
+        @JsonDeserialize(using = JsonDateDeserializer.class)
+        public LocalDateTime timestamp;
+    }
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private Timestamped value;
+    private final String json = "{\"timestamp\":\"2025-03-01T10:15:30\"}";
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        writer = objectMapper.writerFor(Timestamped.class);
+        reader = objectMapper.readerFor(Timestamped.class);
+        value = new Timestamped();
+        value.timestamp = LocalDateTime.of(2025, 3, 1, 10, 15, 30);
+    }
+
+    @Benchmark
+    public String serialize() throws JsonProcessingException {
+        return writer.writeValueAsString(value);
+    }
+
+    @Benchmark
+    public Timestamped deserialize() throws IOException {
+        return reader.readValue(json);
+    }
+}
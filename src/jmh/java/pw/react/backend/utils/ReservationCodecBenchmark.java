@@ -0,0 +1,106 @@
+package pw.react.backend.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pw.react.backend.dto.CreateReservationDTO;
+import pw.react.backend.dto.ReturnReservationDTO;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.models.Reservation;
+import pw.react.backend.models.User;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/// A page of reservations written and read with JavaTimeModule's codecs (`jackson`) and with
+/// ParklyJacksonModule on top (`parkly`). Scores and gc.alloc.rate.norm (run with `-prof gc`,
+/// as the jmh profile does) are per reservation.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReservationCodecBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"jackson", "parkly"})
+    private String codecs;
+
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private List<ReturnReservationDTO> page;
+    private byte[] requests;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (codecs.equals("parkly")) {
+            builder.modulesToInstall(new ParklyJacksonModule());
+        }
+        ObjectMapper objectMapper = builder.build();
+
+        page = new ArrayList<>(PAGE_SIZE);
+        List<CreateReservationDTO> creates = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ParkingArea area = new ParkingArea();
+            area.setId((long) i % 10);
+            area.setName("Area " + i % 10);
+            area.setAddress("Street " + i % 10);
+            area.setCity("Warsaw");
+            area.setHourlyRate(new BigDecimal("12.50"));
+            area.setLatitude(new BigDecimal("52.230"));
+            area.setLongitude(new BigDecimal("21.012"));
+
+            ParkingSpot spot = new ParkingSpot();
+            spot.setId((long) i);
+            spot.setSpotNumber("A" + i);
+            spot.setParkingArea(area);
+
+            User user = new User();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setRole(UserRole.USER);
+
+            Reservation reservation = new Reservation();
+            reservation.setId((long) i);
+            reservation.setParkingSpot(spot);
+            reservation.setUser(user);
+            reservation.setStartTime(LocalDateTime.of(2025, 3, 1, 10, 0).plusMinutes(37L * i));
+            reservation.setEndTime(reservation.getStartTime().plusHours(2));
+            reservation.setTotalCost(BigDecimal.valueOf(2500 + i, 2));
+            reservation.setCreatedAt(LocalDateTime.of(2025, 2, 1, 9, 30, 15, 123_000_000));
+            page.add(ReturnReservationDTO.fromModel(reservation));
+            creates.add(CreateReservationDTO.fromModel(reservation));
+        }
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, ReturnReservationDTO.class));
+        reader = objectMapper.readerFor(CreateReservationDTO[].class);
+        requests = objectMapper.writeValueAsBytes(creates);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public byte[] writePage() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAGE_SIZE)
+    public CreateReservationDTO[] readRequests() throws IOException {
+        return reader.readValue(requests);
+    }
+}
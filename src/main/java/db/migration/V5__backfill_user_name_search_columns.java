@@ -0,0 +1,39 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import pw.react.backend.utils.TrigramIndex;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/// Fills the search columns added by V4 for existing users. Done in Java because the folding
+/// has to match TrigramIndex.normalize exactly, which no MySQL collation does.
+public class V5__backfill_user_name_search_columns extends BaseJavaMigration {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement select = context.getConnection().createStatement();
+             PreparedStatement update = context.getConnection().prepareStatement(
+                     "update `user` set first_name_search = ?, last_name_search = ? where id = ?");
+             ResultSet rs = select.executeQuery("select id, first_name, last_name from `user`")) {
+            int pending = 0;
+            while (rs.next()) {
+                update.setString(1, TrigramIndex.normalize(rs.getString("first_name")));
+                update.setString(2, TrigramIndex.normalize(rs.getString("last_name")));
+                update.setLong(3, rs.getLong("id"));
+                update.addBatch();
+                if (++pending == BATCH_SIZE) {
+                    update.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                update.executeBatch();
+            }
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package pw.react.backend.controller;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -15,29 +14,20 @@ import org.springframework.web.bind.annotation.*;
 import pw.react.backend.dto.CarReservationDTO;
 import pw.react.backend.dto.CarsDTO;
 import pw.react.backend.models.Car;
-import pw.react.backend.services.ReservationService;
+import pw.react.backend.services.CarlyClient;
 import pw.react.backend.utils.Utils;
 
-import java.io.IOException;
-import java.net.URI;
-import java.net.http.HttpClient;
-import java.net.http.HttpRequest;
-import java.net.http.HttpResponse;
-import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
-import java.util.logging.Level;
-import java.util.logging.LogRecord;
-import java.util.logging.Logger;
 
 @RestController
 @RequestMapping("/api/cars")
 @Tag(name = "Cars", description = "Operations related to cars and their reservations")
 public class CarsController {
-    final private String carlyHostname;
+    final private CarlyClient carlyClient;
 
-    public CarsController() {
-        this.carlyHostname = System.getenv("CARLY_HOSTNAME");
+    public CarsController(CarlyClient carlyClient) {
+        this.carlyClient = carlyClient;
     }
 
     @GetMapping("/search/{page}")
@@ -53,45 +43,15 @@ public class CarsController {
             @Parameter(description = "Longitude", example = "12.324") @RequestParam(value = "long", required = true) double longitude,
             @Parameter(description = "Latitude", example = "12.324") @RequestParam(value = "lat", required = true) double latitude) {
 
-        int tries = 5;
-        while (tries > 0) {
-            HttpClient client = HttpClient.newBuilder().build();
-            int page_ = 0;
-            int size_ = Integer.MAX_VALUE;
-            String sort = "asc";
-
-            String urlWithParams = String.format("%s/cars?page=%d&size=%d&sort=%s", carlyHostname, page_, size_, sort);
-
-            Logger.getAnonymousLogger().log(new LogRecord(Level.WARNING, "Carly at: " + urlWithParams));
-
-            HttpRequest request = HttpRequest.newBuilder()
-                    .uri(URI.create(urlWithParams))
-                    .GET()
-                    .build();
-            try {
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-
-                String jsonString = response.body();
-
-                ObjectMapper objectMapper = new ObjectMapper();
-
-                CarsDTO carResponse = objectMapper.readValue(jsonString, CarsDTO.class);
-
-                List<Car> cars = getCarList(longitude, latitude, carResponse);
-
-                return ResponseEntity.status(HttpStatus.OK).body(convertListToPage(cars, page, size, sort));
-            }
-            catch (InterruptedException | IOException e) {
-                Logger.getAnonymousLogger().log(new LogRecord(Level.WARNING, "Could not get to Carly:\n" + e.getMessage()));
-            }
-            tries--;
-        }
-
-        return ResponseEntity.internalServerError().build();
+        String sort = "asc";
+        return carlyClient.getCars()
+                .<ResponseEntity<?>>map(carResponse -> ResponseEntity.status(HttpStatus.OK)
+                        .body(convertListToPage(getCarList(longitude, latitude, carResponse), page, size, sort)))
+                .orElseGet(() -> ResponseEntity.internalServerError().build());
     }
 
 
-    private static List<Car> getCarList(double longitude, double latitude, CarsDTO carResponse) {
+    static List<Car> getCarList(double longitude, double latitude, CarsDTO carResponse) {
         List<Car> cars = carResponse.content;
 
         // Sort the cars based on distance to the target
@@ -143,12 +103,12 @@ public class CarsController {
     public ResponseEntity<?> createCarReservation(
             @Parameter(description = "Car reservation object DTO to create", required = true, schema = @Schema(implementation = CarReservationDTO.class)) @RequestBody CarReservationDTO reservationDTO
     ) {
-        switch (createCarlyUser(reservationDTO.userEmail())) {
+        switch (carlyClient.createUser(reservationDTO.userEmail())) {
             case 409:
                 // user already exists
             case 201:
                 // user created successfully
-                switch (createCarlyCarReservation(reservationDTO.carId(), reservationDTO.startTime(),
+                switch (carlyClient.createReservation(reservationDTO.carId(), reservationDTO.startTime(),
                         reservationDTO.endTime(), reservationDTO.userEmail())) {
                     case 201:
                         // made a car reservation
@@ -162,75 +122,4 @@ public class CarsController {
                 return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
-
-
-    /// Returns status code from Carly server upon create Carly user try
-    private int createCarlyUser(String email) {
-        HttpClient client = HttpClient.newBuilder().build();
-        String urlWithParams = String.format("%s/customers/external", carlyHostname);
-        String requestBody = "{\"email\": \"%s\"}".formatted(email);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(urlWithParams))
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .header("Content-Type", "application/json")
-                .build();
-
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            // created user (hopefully)
-            return response.statusCode();
-
-        } catch (InterruptedException | IOException e) {
-            Logger.getAnonymousLogger().log(new LogRecord(Level.WARNING, "Could not get to Carly:\n" + e.getMessage()));
-            return 500;
-        }
-    }
-
-    /// Returns status code from Carly server upon login try
-    @Deprecated(forRemoval = true)
-    private int loginToCarly(String email) {
-        HttpClient client = HttpClient.newBuilder().build();
-        String urlWithParams = String.format("%s/customers/login", carlyHostname);
-        String requestBody = "{\"email\": \"%s\"}".formatted(email);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(urlWithParams))
-                .PUT(HttpRequest.BodyPublishers.ofString(requestBody))
-                .header("Content-Type", "application/json")
-                .build();
-
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode();
-        }
-        catch (InterruptedException | IOException e) {
-            Logger.getAnonymousLogger().log(new LogRecord(Level.WARNING, "Could not get to Carly:\n" + e.getMessage()));
-            return 500;
-        }
-    }
-
-    /// Returns status code from Carly server upon create reservation try
-    private int createCarlyCarReservation(String carId, LocalDateTime startDate, LocalDateTime endDate, String email)
-    {
-        HttpClient client = HttpClient.newBuilder().build();
-        String urlWithParams = String.format("%s/rentals/", carlyHostname);
-        String requestBody = "{\"carId\": \"%s\", \"startAt\": \"%s\", \"endAt\": \"%s\"}".formatted(carId, startDate, endDate);
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(urlWithParams))
-                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "Bearer " + email)
-                .build();
-
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            return response.statusCode();
-        }
-        catch (InterruptedException | IOException e) {
-            Logger.getAnonymousLogger().log(new LogRecord(Level.WARNING, "Could not get to Carly:\n" + e.getMessage()));
-            return 500;
-        }
-    }
 }
@@ -0,0 +1,82 @@
+package pw.react.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import pw.react.backend.exceptions.ModelValidationException;
+import pw.react.backend.models.BackgroundJob;
+import pw.react.backend.services.ImportService;
+import pw.react.backend.web.ImportResponse;
+import pw.react.backend.web.UploadFileResponse;
+
+@RestController
+@RequestMapping("/api/import")
+@Tag(name = "Import", description = "Bulk import of parking areas and parking spots from CSV or NDJSON files")
+public class ImportController {
+
+    final private ImportService importService;
+
+    ImportController(ImportService importService) {
+        this.importService = importService;
+    }
+
+
+    @PostMapping(value = "/parking-areas", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import parking areas", description = "Upserts parking areas by name. Columns: name, address, city, hourlyRate, longitude, latitude. " +
+            "Runs in the background; poll /api/jobs/{jobId} for progress and row errors. Requires Admin role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Empty file, unknown format or invalid batch size",
+                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin role required)")
+    })
+    public ResponseEntity<?> importParkingAreas(
+            @Parameter(description = "CSV with a header row, or NDJSON", required = true) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "csv or ndjson, detected from the file name when omitted") @RequestParam(value = "format", required = false) String format,
+            @Parameter(description = "Rows per batch (at most 10000)") @RequestParam(value = "batchSize", required = false) Integer batchSize) {
+        try {
+            BackgroundJob job = importService.importParkingAreas(file, format, batchSize);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ImportResponse(describe(file), job));
+        } catch (ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
+    @PostMapping(value = "/parking-spots", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import parking spots", description = "Adds parking spots by parking area name and spot number; spots that already exist are left unchanged, " +
+            "so a re-import never frees a reserved spot. Columns: parkingArea, spotNumber, isAvailable (for new spots). " +
+            "Runs in the background; poll /api/jobs/{jobId} for progress and row errors. Requires Admin role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import started",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ImportResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Empty file, unknown format or invalid batch size",
+                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin role required)")
+    })
+    public ResponseEntity<?> importParkingSpots(
+            @Parameter(description = "CSV with a header row, or NDJSON", required = true) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "csv or ndjson, detected from the file name when omitted") @RequestParam(value = "format", required = false) String format,
+            @Parameter(description = "Rows per batch (at most 10000)") @RequestParam(value = "batchSize", required = false) Integer batchSize) {
+        try {
+            BackgroundJob job = importService.importParkingSpots(file, format, batchSize);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(new ImportResponse(describe(file), job));
+        } catch (ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static UploadFileResponse describe(MultipartFile file) {
+        return new UploadFileResponse(file.getOriginalFilename(), null, file.getContentType(), file.getSize());
+    }
+}
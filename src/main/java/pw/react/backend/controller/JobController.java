@@ -0,0 +1,39 @@
+package pw.react.backend.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import pw.react.backend.models.BackgroundJob;
+import pw.react.backend.services.BackgroundJobRegistry;
+
+@RestController
+@RequestMapping("/api/jobs")
+@Tag(name = "Jobs", description = "Status of long running background operations")
+public class JobController {
+
+    final private BackgroundJobRegistry backgroundJobRegistry;
+
+    JobController(BackgroundJobRegistry backgroundJobRegistry) {
+        this.backgroundJobRegistry = backgroundJobRegistry;
+    }
+
+
+    @GetMapping("/{id}")
+    @Operation(summary = "Get background job by ID", description = "Retrieves the status and progress of a background job.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Job found",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BackgroundJob.class))),
+            @ApiResponse(responseCode = "404", description = "Job not found")
+    })
+    public ResponseEntity<?> getJobById(@Parameter(description = "ID of the job", required = true) @PathVariable String id) {
+        return backgroundJobRegistry.find(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
@@ -2,6 +2,7 @@ package pw.react.backend.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -11,10 +12,20 @@ import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import pw.react.backend.dto.BulkParkingSpotsResultDTO;
 import pw.react.backend.dto.CreateParkingAreaDTO;
+import pw.react.backend.dto.CreateParkingSpotsBulkDTO;
+import pw.react.backend.dto.NearestParkingAreaDTO;
+import pw.react.backend.dto.ReturnParkingAreaDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
+import pw.react.backend.exceptions.ModelValidationException;
+import pw.react.backend.models.BackgroundJob;
 import pw.react.backend.models.ParkingArea;
+import pw.react.backend.services.BackgroundJobRegistry;
 import pw.react.backend.services.ParkingAreaService;
+import pw.react.backend.services.ParkingSpotService;
+import pw.react.backend.services.ResourceVersions;
 import pw.react.backend.utils.Utils;
 
 import java.util.Optional;
@@ -26,40 +37,76 @@ import java.util.Optional;
 public class ParkingAreaController {
 
     final private ParkingAreaService parkingAreaService;
+    final private ParkingSpotService parkingSpotService;
+    final private BackgroundJobRegistry backgroundJobRegistry;
+    final private ResourceVersions resourceVersions;
 
-    ParkingAreaController(ParkingAreaService parkingAreaService) {
+    ParkingAreaController(ParkingAreaService parkingAreaService, ParkingSpotService parkingSpotService,
+                          BackgroundJobRegistry backgroundJobRegistry, ResourceVersions resourceVersions) {
         this.parkingAreaService = parkingAreaService;
+        this.parkingSpotService = parkingSpotService;
+        this.backgroundJobRegistry = backgroundJobRegistry;
+        this.resourceVersions = resourceVersions;
     }
 
 
     @GetMapping("/page/{page}")
-    @Operation(summary = "Get all parking areas (paginated)", description = "Retrieves a paginated list of parking areas.")
+    @Operation(summary = "Get all parking areas (paginated)", description = "Retrieves a paginated list of parking areas with their free spot count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of parking areas",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Page.class)))
     })
-    public Page<ParkingArea> getAllParkingAreas(
+    public Page<ReturnParkingAreaDTO> getAllParkingAreas(
             @Parameter(description = "Page number (0-based)", required = true) @PathVariable int page,
             @Parameter(description = "Page size") @RequestParam(value = "size", required = false, defaultValue = "10") int size,
             @Parameter(description = "Sort direction (asc or desc)") @RequestParam(value = "sortDirection", required = false, defaultValue = "asc") String sortDirection,
             @Parameter(description = "Search query") @RequestParam(value = "searchQuery", required = false) String searchQuery,
             @Parameter(description = "Search query property / parameter. Possible values: ['address', 'city', 'name']") @RequestParam(value = "searchQueryParameter", required = false) String searchQueryParameter) {
-        return parkingAreaService.getParkingAreas(page, size, sortDirection,
-                searchQuery, searchQueryParameter);
+        return parkingAreaService.getParkingAreas(page, size, sortDirection, searchQuery, searchQueryParameter)
+                .map(pa -> ReturnParkingAreaDTO.fromModel(pa, parkingAreaService.countFreeSpots(pa.getId())));
+    }
+
+
+    @GetMapping("/near")
+    @Operation(summary = "Get parking areas near a location", description = "Retrieves parking areas within the given radius, closest first, with their distance and free spot count.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of parking areas",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = NearestParkingAreaDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid coordinates, radius or limit",
+                    content = @Content(mediaType = "text/plain"))
+    })
+    public ResponseEntity<?> getParkingAreasNear(
+            @Parameter(description = "Latitude", required = true, example = "52.222") @RequestParam(value = "lat") double latitude,
+            @Parameter(description = "Longitude", required = true, example = "21.007") @RequestParam(value = "long") double longitude,
+            @Parameter(description = "Search radius in kilometers (at most 100)", example = "5") @RequestParam(value = "radiusKm", required = false, defaultValue = "5") double radiusKm,
+            @Parameter(description = "Maximum number of parking areas (at most 1000)") @RequestParam(value = "limit", required = false, defaultValue = "100") int limit) {
+        try {
+            return ResponseEntity.ok(parkingAreaService.getParkingAreasNear(latitude, longitude, radiusKm, limit));
+        } catch (ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 
 
     @GetMapping("/{id}")
-    @Operation(summary = "Get parking area by ID", description = "Retrieves a parking area by its ID.")
+    @Operation(summary = "Get parking area by ID", description = "Retrieves a parking area by its ID together with its free spot count.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Parking area found",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ParkingArea.class))),
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = ReturnParkingAreaDTO.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Parking area not found")
     })
-    public ResponseEntity<?> getParkingAreaById(@Parameter(description = "ID of the parking area to retrieve", required = true) @PathVariable Long id) {
+    public ResponseEntity<?> getParkingAreaById(@Parameter(description = "ID of the parking area to retrieve", required = true) @PathVariable Long id,
+                                                WebRequest request) {
+        long freeSpots = parkingAreaService.countFreeSpots(id);
+        String eTag = resourceVersions.parkingAreaETag(id, freeSpots);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         return parkingAreaService.getParkingArea(id)
-                .map(ResponseEntity::ok)
+                .<ResponseEntity<?>>map(pa -> ResponseEntity.ok().eTag(eTag).body(ReturnParkingAreaDTO.fromModel(pa, freeSpots)))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -84,6 +131,27 @@ public class ParkingAreaController {
     }
 
 
+    @PostMapping("/{id}/spots/bulk")
+    @Operation(summary = "Create many parking spots in a parking area", description = "Creates up to 5000 parking spots from a pattern like A1..A500 or from an explicit list, " +
+            "all or nothing. Requires Admin role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Parking spots created successfully",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkParkingSpotsResultDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unknown parking area, invalid pattern or spot numbers that already exist",
+                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin role required)")
+    })
+    public ResponseEntity<?> createParkingSpots(
+            @Parameter(description = "ID of the parking area", required = true) @PathVariable Long id,
+            @Parameter(description = "Pattern or list of spot numbers", required = true, schema = @Schema(implementation = CreateParkingSpotsBulkDTO.class)) @RequestBody CreateParkingSpotsBulkDTO bulkDTO) {
+        try {
+            return ResponseEntity.status(HttpStatus.CREATED).body(parkingSpotService.createParkingSpots(id, bulkDTO));
+        } catch (ModelAlreadyExistsException | ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
     @PutMapping("/{id}")
     @Operation(summary = "Update a parking area", description = "Updates a parking area based on the provided ID and data. Requires Admin role.")
     @ApiResponses(value = {
@@ -101,14 +169,29 @@ public class ParkingAreaController {
 
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a parking area", description = "Deletes a parking area based on the provided ID. Requires Admin role.")
+    @Operation(summary = "Delete a parking area", description = "Deletes a parking area together with its parking spots and their reservations. " +
+            "With async=true the deletion runs in the background and a job to poll at /api/jobs/{jobId} is returned. Requires Admin role.")
     @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Deletion scheduled",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = BackgroundJob.class))),
             @ApiResponse(responseCode = "204", description = "Parking area deleted successfully"),
             @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin role required)"),
             @ApiResponse(responseCode = "404", description = "Not Found - Parking area with the specified ID does not exist")
     })
-    public ResponseEntity<Void> deleteParkingArea(
-            @Parameter(description = "ID of the parking area to delete", required = true) @PathVariable Long id) {
+    public ResponseEntity<?> deleteParkingArea(
+            @Parameter(description = "ID of the parking area to delete", required = true) @PathVariable Long id,
+            @Parameter(description = "Run the deletion in the background") @RequestParam(value = "async", required = false, defaultValue = "false") boolean async) {
+        if (async) {
+            if (parkingAreaService.getParkingArea(id).isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            BackgroundJob job = backgroundJobRegistry.submit("delete-parking-area", j -> {
+                if (!parkingAreaService.deleteParkingArea(id)) {
+                    j.setMessage("Parking area " + id + " was already deleted");
+                }
+            });
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        }
         if (parkingAreaService.deleteParkingArea(id)) {
             return ResponseEntity.noContent().build();
         }
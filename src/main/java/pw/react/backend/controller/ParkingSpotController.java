@@ -9,23 +9,22 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pw.react.backend.dto.CreateParkingSpotDTO;
+import pw.react.backend.dto.NearestParkingAreaDTO;
 import pw.react.backend.dto.ReturnParkingSpotDTO;
+import pw.react.backend.dto.SeekPageDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
 import pw.react.backend.exceptions.ModelValidationException;
 import pw.react.backend.models.ParkingSpot;
 import pw.react.backend.services.ParkingSpotService;
+import pw.react.backend.services.ResourceVersions;
 import pw.react.backend.utils.Utils;
 
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/parking-spots")
@@ -33,9 +32,11 @@ import java.util.stream.Collectors;
 public class ParkingSpotController {
 
     final private ParkingSpotService parkingSpotService;
+    final private ResourceVersions resourceVersions;
 
-    ParkingSpotController(ParkingSpotService parkingSpotService) {
+    ParkingSpotController(ParkingSpotService parkingSpotService, ResourceVersions resourceVersions) {
         this.parkingSpotService = parkingSpotService;
+        this.resourceVersions = resourceVersions;
     }
 
 
@@ -43,23 +44,47 @@ public class ParkingSpotController {
     @Operation(summary = "Get all parking spots (paginated)", description = "Retrieves a paginated list of parking spots with sorting options.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of parking spots",
-                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class)))
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unsupported sort field",
+                    content = @Content(mediaType = "text/plain"))
     })
-    public Page<ReturnParkingSpotDTO> getAllParkingSpots(
+    public ResponseEntity<?> getAllParkingSpots(
             @Parameter(description = "Page number (0-based)", required = true) @PathVariable int page,
             @Parameter(description = "Page size") @RequestParam(value = "size", required = false, defaultValue = "10") int size,
-            @Parameter(description = "Sort-by field")
+            @Parameter(description = "Sort-by field (id, spotNumber, parkingAreaId or isAvailable)")
+            @RequestParam(value = "sortBy", required = false, defaultValue = "spotNumber") String sortBy,
+            @Parameter(description = "Sort direction (asc or desc)")
+            @RequestParam(value = "sortDirection", required = false, defaultValue = "asc") String sortDirection) {
+        try {
+            Page<ReturnParkingSpotDTO> parkingSpots = parkingSpotService.getParkingSpots(page, size, sortBy, sortDirection)
+                    .map(ReturnParkingSpotDTO::fromModel);
+            return ResponseEntity.ok(parkingSpots);
+        } catch (ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+
+    @GetMapping("/seek")
+    @Operation(summary = "Get parking spots after a cursor", description = "Seek pagination: pass the nextCursor of the previous response to get the next page. No count query, no offset.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of parking spots",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = SeekPageDTO.class))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Unsupported sort field, invalid size or malformed cursor",
+                    content = @Content(mediaType = "text/plain"))
+    })
+    public ResponseEntity<?> getParkingSpotsAfter(
+            @Parameter(description = "Cursor from the previous page, empty for the first page") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "Page size (at most 100)") @RequestParam(value = "size", required = false, defaultValue = "10") int size,
+            @Parameter(description = "Sort-by field (id, spotNumber, parkingAreaId or isAvailable)")
             @RequestParam(value = "sortBy", required = false, defaultValue = "spotNumber") String sortBy,
             @Parameter(description = "Sort direction (asc or desc)")
             @RequestParam(value = "sortDirection", required = false, defaultValue = "asc") String sortDirection) {
-        Sort sort = Sort.by(sortBy);
-        if (sortDirection.equalsIgnoreCase("desc")) {
-            sort = sort.descending();
-        } else if (sortDirection.equalsIgnoreCase("asc")) {
-            sort = sort.ascending();
+        try {
+            return ResponseEntity.ok(parkingSpotService.getParkingSpotsAfter(cursor, size, sortBy, sortDirection));
+        } catch (ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
-        Pageable pageable = PageRequest.of(page, size, sort);
-        return parkingSpotService.getParkingSpots(pageable).map(ReturnParkingSpotDTO::fromModel);
     }
 
 
@@ -69,18 +94,40 @@ public class ParkingSpotController {
             @ApiResponse(responseCode = "200", description = "Successful retrieval of parking spots",
                     content = @Content(mediaType = "application/json",
                             array = @ArraySchema(schema = @Schema(implementation = ReturnParkingSpotDTO.class)))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid parking area ID",
                     content = @Content(mediaType = "text/plain"))
     })
     public ResponseEntity<?> getAllParkingSpotsByParkingAreaId(
-            @Parameter(description = "Parking Area id", required = true) @RequestParam(value = "paId", required = true) Long paId) {
+            @Parameter(description = "Parking Area id", required = true) @RequestParam(value = "paId", required = true) Long paId,
+            WebRequest request) {
+        String eTag = resourceVersions.parkingSpotsETag(paId);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         try {
-            List<ReturnParkingSpotDTO> parkingSpots = parkingSpotService.getParkingSpotsByParkingAreaId(paId).stream()
-                    .map(ReturnParkingSpotDTO::fromModel)
-                    .collect(Collectors.toList());
+            return ResponseEntity.ok().eTag(eTag).body(parkingSpotService.getParkingSpotsByParkingAreaId(paId));
+        } catch (ModelValidationException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
 
-            return ResponseEntity.ok(parkingSpots);
 
+    @GetMapping("/nearest")
+    @Operation(summary = "Get nearest parking areas with free spots", description = "Retrieves parking areas that have at least one available spot, closest first, together with their free spot count.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successful retrieval of parking areas",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = NearestParkingAreaDTO.class)))),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid coordinates or limit",
+                    content = @Content(mediaType = "text/plain"))
+    })
+    public ResponseEntity<?> getNearestAvailableParkingAreas(
+            @Parameter(description = "Latitude", required = true, example = "52.222") @RequestParam(value = "lat") double latitude,
+            @Parameter(description = "Longitude", required = true, example = "21.007") @RequestParam(value = "long") double longitude,
+            @Parameter(description = "Maximum number of parking areas (at most 100)") @RequestParam(value = "limit", required = false, defaultValue = "10") int limit) {
+        try {
+            return ResponseEntity.ok(parkingSpotService.getNearestAvailableParkingAreas(latitude, longitude, limit));
         } catch (ModelValidationException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -7,10 +7,18 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pw.react.backend.dto.CreateReservationDTO;
 import pw.react.backend.dto.ReturnReservationDTO;
 import pw.react.backend.exceptions.ModelNotFoundException;
@@ -19,15 +27,22 @@ import pw.react.backend.models.Reservation;
 import pw.react.backend.services.ReservationService;
 import pw.react.backend.utils.Utils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
 @RestController
 @RequestMapping("/api/reservations")
 @Tag(name = "Reservations (pure Parkly)", description = "Operations related to reservations")
 public class ReservationController {
 
     final private ReservationService reservationService;
+    private final Duration exportTimeout;
 
-    public ReservationController(ReservationService reservationService) {
+    public ReservationController(ReservationService reservationService,
+                                 @Value("${parkly.export.timeout:PT30M}") Duration exportTimeout) {
         this.reservationService = reservationService;
+        this.exportTimeout = exportTimeout;
     }
 
 
@@ -65,6 +80,44 @@ public class ReservationController {
         return ResponseEntity.ok(reservationService.findByUserId(page, size, sortDirection, id).map(ReturnReservationDTO::fromModel));
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export reservations",
+            description = "Streams all matching reservations as NDJSON or CSV, ordered by id, without loading them into memory. Requires admin role.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservations streamed",
+                    content = {@Content(mediaType = "application/x-ndjson"), @Content(mediaType = "text/csv")}),
+            @ApiResponse(responseCode = "400", description = "Bad Request - unknown format or invalid date range", content = @Content(mediaType = "text/plain", schema = @Schema(type = "string"))),
+            @ApiResponse(responseCode = "403", description = "Forbidden - insufficient privileges")
+    })
+    public ResponseEntity<StreamingResponseBody> exportReservations(
+            @Parameter(description = "ndjson or csv", example = "ndjson") @RequestParam(value = "format", required = false, defaultValue = "ndjson") String format,
+            @Parameter(description = "Only reservations starting at or after this time", example = "2025-01-01T00:00:00")
+            @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Only reservations starting before this time", example = "2025-02-01T00:00:00")
+            @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Only reservations in this parking area", example = "1") @RequestParam(value = "parkingAreaId", required = false) Long parkingAreaId,
+            HttpServletRequest request) {
+        try {
+            StreamingResponseBody body = reservationService.exportReservations(from, to, parkingAreaId, format);
+            // full dumps outlive the default async timeout; only this response gets the longer one
+            AsyncWebRequest asyncWebRequest = WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest();
+            if (asyncWebRequest != null) {
+                asyncWebRequest.setTimeout(exportTimeout.toMillis());
+            }
+            boolean csv = "csv".equalsIgnoreCase(format);
+            return ResponseEntity.ok()
+                    .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reservations." + (csv ? "csv" : "ndjson") + "\"")
+                    .body(body);
+        } catch (ModelValidationException e) {
+            // the return type has to name StreamingResponseBody for Spring MVC to stream it, so the message is streamed too
+            return ResponseEntity.badRequest()
+                    .contentType(new MediaType("text", "plain", StandardCharsets.UTF_8))
+                    .body(out -> out.write(e.getMessage().getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+
     @GetMapping("/{id}")
     @Operation(summary = "Get reservation by ID",
             description = "Retrieves a reservation by its ID. Requires admin or user role.")
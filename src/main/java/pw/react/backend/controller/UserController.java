@@ -7,19 +7,26 @@ import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import pw.react.backend.dto.CreateUserDTO;
 import pw.react.backend.dto.LoginDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
 import pw.react.backend.exceptions.ModelNotFoundException;
 import pw.react.backend.exceptions.ModelValidationException;
 import pw.react.backend.models.User;
+import pw.react.backend.services.ResourceVersions;
+import pw.react.backend.services.SessionTokenService;
 import pw.react.backend.services.UserService;
+import pw.react.backend.utils.UserRole;
 import pw.react.backend.utils.Utils;
+import pw.react.backend.web.SessionPrincipal;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -31,9 +38,21 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
+    private final SessionTokenService sessionTokenService;
+    private final ResourceVersions resourceVersions;
+    /// parkly.auth.enforce: only admins pick or change roles; who may write which user is SessionTokenFilter's job
+    private final boolean enforceRoles;
 
-    public UserController(UserService userService) {
+    public UserController(UserService userService, SessionTokenService sessionTokenService, ResourceVersions resourceVersions,
+                          @Value("${parkly.auth.enforce:false}") boolean enforceRoles) {
         this.userService = userService;
+        this.sessionTokenService = sessionTokenService;
+        this.resourceVersions = resourceVersions;
+        this.enforceRoles = enforceRoles;
+    }
+
+    private boolean callerIsAdmin(HttpServletRequest request) {
+        return SessionPrincipal.from(request).map(SessionPrincipal::isAdmin).orElse(false);
     }
 
     @GetMapping("/page/{page}")
@@ -49,7 +68,7 @@ public class UserController {
             @Parameter(description = "Number of users per page.") @RequestParam(value = "size", required = false, defaultValue = "10") int size,
             @Parameter(description = "Sorting direction (asc or desc). Allowed: {\"asc\", \"desc\"}.") @RequestParam(value = "sortDirection", required = false, defaultValue = "asc") String sortDirection,
             @Parameter(description = "Search query string") @RequestParam(value = "searchQuery", required = false) String searchQuery,
-            @Parameter(description = "Specific parameter to search within. Allowed: ['username', 'email', 'firstName', 'lastName', 'fullName']") @RequestParam(value = "searchQueryParameter", required = false) String searchQueryParameter) {
+            @Parameter(description = "Specific parameter to search within. Allowed: ['username', 'email', 'firstName', 'lastName', 'fullName', 'fuzzy']. Names match by prefix (fullName: every word starts the first or last name), fuzzy ranks full names by similarity") @RequestParam(value = "searchQueryParameter", required = false) String searchQueryParameter) {
         return ResponseEntity.ok(userService.findAll(page, size, sortDirection, searchQuery, searchQueryParameter));
     }
 
@@ -59,18 +78,24 @@ public class UserController {
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User found", content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
             @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin or User role required)"),
+            @ApiResponse(responseCode = "304", description = "Not modified since the version in If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Not Found - User with the specified ID does not exist")
     })
     public ResponseEntity<?> getUserById(
-            @Parameter(description = "ID of the user to retrieve", required = true) @PathVariable Long id) {
+            @Parameter(description = "ID of the user to retrieve", required = true) @PathVariable Long id,
+            WebRequest request) {
+        String eTag = resourceVersions.userETag(id);
+        if (eTag != null && request.checkNotModified(eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
         Optional<User> user = userService.findById(id);
-        return user.map(value -> new ResponseEntity<>(value, HttpStatus.OK))
+        return user.<ResponseEntity<?>>map(value -> ResponseEntity.ok().eTag(eTag).body(value))
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
 
     @PostMapping
-    @Operation(summary = "Create a new user", description = "Creates a new user based on the provided data.")
+    @Operation(summary = "Create a new user", description = "Creates a new user based on the provided data. Unless the caller is an admin, the user gets the USER role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "201", description = "User created successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
@@ -78,30 +103,45 @@ public class UserController {
                     content = @Content(mediaType = "text/plain"))
     })
     public ResponseEntity<?> createUser(
-            @Parameter(description = "User object to create", required = true, schema = @Schema(implementation = CreateUserDTO.class)) @RequestBody CreateUserDTO userDTO) {
+            @Parameter(description = "User object to create", required = true, schema = @Schema(implementation = CreateUserDTO.class)) @RequestBody CreateUserDTO userDTO,
+            HttpServletRequest request) {
+        if (enforceRoles && !callerIsAdmin(request)) {
+            userDTO = userDTO.withRole(UserRole.USER);
+        }
         try {
             User savedUser = userService.create(userDTO);
             return ResponseEntity.status(HttpStatus.CREATED).body(savedUser);
-        } catch (ModelAlreadyExistsException e) {
+        } catch (ModelAlreadyExistsException | ModelValidationException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
 
 
     @PutMapping("/{id}")
-    @Operation(summary = "Update an existing user", description = "Updates an existing user based on the provided ID and data. Requires Admin or User role.")
+    @Operation(summary = "Update an existing user", description = "Updates an existing user based on the provided ID and data. Requires Admin role or being that user; only admins may change the role.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "User updated successfully",
                     content = @Content(mediaType = "application/json", schema = @Schema(implementation = User.class))),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid user data or validation error",
                     content = @Content(mediaType = "text/plain")),
-            @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin or User role required)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Neither an admin nor that user, or a role change by a non-admin"),
             @ApiResponse(responseCode = "404", description = "Not Found - User with the specified ID does not exist",
                     content = @Content(mediaType = "text/plain"))
     })
     public ResponseEntity<?> updateUser(
             @Parameter(description = "ID of the user to update", required = true) @PathVariable Long id,
-            @Parameter(description = "Updated user object", required = true, schema = @Schema(implementation = User.class)) @RequestBody User updatedUser) {
+            @Parameter(description = "Updated user object", required = true, schema = @Schema(implementation = User.class)) @RequestBody User updatedUser,
+            HttpServletRequest request) {
+        if (enforceRoles && !callerIsAdmin(request)) {
+            Optional<User> existing = userService.findById(id);
+            if (existing.isPresent()) {
+                UserRole role = existing.get().getRole();
+                if (updatedUser.getRole() != null && updatedUser.getRole() != role) {
+                    return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Only admins can change roles");
+                }
+                updatedUser.setRole(role);
+            }
+        }
         try {
             return new ResponseEntity<>(userService.update(id, updatedUser), HttpStatus.OK);
         } catch (ModelValidationException e) {
@@ -113,10 +153,10 @@ public class UserController {
 
 
     @DeleteMapping("/{id}")
-    @Operation(summary = "Delete a user", description = "Deletes a user based on the provided ID. Requires Admin or User role.")
+    @Operation(summary = "Delete a user", description = "Deletes a user based on the provided ID. Requires Admin role or being that user.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "User deleted successfully"),
-            @ApiResponse(responseCode = "403", description = "Forbidden - Insufficient privileges (Admin or User role required)"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Neither an admin nor that user"),
             @ApiResponse(responseCode = "404", description = "Not Found - User with the specified ID does not exist")
     })
     public ResponseEntity<Void> deleteUser(
@@ -131,11 +171,12 @@ public class UserController {
 
 
     @PostMapping("/login")
-    @Operation(summary = "Login user", description = "Authenticates a user and sets a cookie containing the user's role.")
+    @Operation(summary = "Login user", description = "Authenticates a user and returns a signed session token to send as 'Authorization: Bearer <token>'.")
     @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Login successful."), // Document the Set-Cookie header
+            @ApiResponse(responseCode = "200", description = "Login successful."),
             @ApiResponse(responseCode = "400", description = "Bad Request - Invalid credentials",
-                    content = @Content(mediaType = "text/plain"))
+                    content = @Content(mediaType = "text/plain")),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Wrong password")
     })
     public ResponseEntity<?> loginUser(@Parameter(description = "Login credentials", required = true, schema = @io.swagger.v3.oas.annotations.media.Schema(implementation = LoginDTO.class)) @RequestBody LoginDTO loginDTO) {
         try {
@@ -145,6 +186,9 @@ public class UserController {
             responseBody.put("username", user.getUsername());
             responseBody.put("role", user.getRole().name());
             responseBody.put("email", user.getEmail());
+            SessionTokenService.IssuedToken token = sessionTokenService.issue(user);
+            responseBody.put("token", token.token());
+            responseBody.put("expiresAt", token.expiresAt().toString());
 
             return ResponseEntity.ok()
                     .body(responseBody);
@@ -152,4 +196,20 @@ public class UserController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         }
     }
+
+
+    @PostMapping("/logout")
+    @Operation(summary = "Logout user", description = "Revokes the session token sent in the Authorization header.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "204", description = "Token revoked"),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - No valid session token")
+    })
+    public ResponseEntity<Void> logoutUser(HttpServletRequest request) {
+        Optional<SessionPrincipal> principal = SessionPrincipal.from(request);
+        if (principal.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.UNAUTHORIZED);
+        }
+        sessionTokenService.revoke(principal.get());
+        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    }
 }
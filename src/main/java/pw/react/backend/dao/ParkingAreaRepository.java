@@ -5,13 +5,24 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import pw.react.backend.models.ParkingArea;
 import pw.react.backend.models.User;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ParkingAreaRepository extends JpaRepository<ParkingArea, Long>, JpaSpecificationExecutor<ParkingArea> {
     Boolean existsByName(String name);
+
+    @Query("select pa.id, pa.latitude, pa.longitude from ParkingArea pa")
+    List<Object[]> findAllCoordinates();
+
+    @Query("select pa.id, pa.name, pa.address, pa.city from ParkingArea pa")
+    List<Object[]> findAllSearchableFields();
+
+    @Query("select pa.name from ParkingArea pa")
+    List<String> findAllNames();
 }
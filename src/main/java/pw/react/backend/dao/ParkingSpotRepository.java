@@ -2,12 +2,16 @@ package pw.react.backend.dao;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pw.react.backend.models.ParkingArea;
 import pw.react.backend.models.ParkingSpot;
 import pw.react.backend.models.User;
 
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long>, JpaSpecificationExecutor<ParkingSpot> {
@@ -15,4 +19,14 @@ public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long>,
     ParkingSpot findBySpotNumberAndParkingArea(String spotNumber, ParkingArea parkingArea);
     Boolean existsByParkingAreaAndSpotNumber(ParkingArea parkingArea, String spotNumber);
     List<ParkingSpot> findParkingSpotsByParkingAreaIdAndIsAvailableTrue(Long parkingAreaId);
+
+    @Query("select ps.spotNumber from ParkingSpot ps where ps.parkingArea.id = :parkingAreaId")
+    Set<String> findSpotNumbersByParkingAreaId(@Param("parkingAreaId") Long parkingAreaId);
+
+    @Query("select ps.parkingArea.id, count(ps) from ParkingSpot ps where ps.isAvailable = true group by ps.parkingArea.id")
+    List<Object[]> countAvailableSpotsGroupedByParkingArea();
+
+    @Modifying
+    @Query("delete from ParkingSpot ps where ps.parkingArea.id = :parkingAreaId")
+    int deleteByParkingAreaId(@Param("parkingAreaId") Long parkingAreaId);
 }
@@ -2,8 +2,12 @@ package pw.react.backend.dao;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import pw.react.backend.models.ParkingSpot;
 import pw.react.backend.models.Reservation;
@@ -17,6 +21,20 @@ import java.util.Optional;
 public interface ReservationRepository extends JpaRepository<Reservation, Long>, JpaSpecificationExecutor<Reservation> {
     boolean existsByUserAndParkingSpotAndStartTimeAndEndTime
             (User user, ParkingSpot parkingSpot, LocalDateTime startTime, LocalDateTime endTime);
+    /// Spot, area and user are eager; fetching them with the page keeps a page at two queries instead of one per row.
+    @Override
+    @EntityGraph(attributePaths = {"parkingSpot.parkingArea", "user"})
+    Page<Reservation> findAll(Pageable pageable);
+
+    @EntityGraph(attributePaths = {"parkingSpot.parkingArea", "user"})
     Page<Reservation> findByUserId(Long userId, Pageable pageable);
     Optional<Reservation> findByParkingSpot(ParkingSpot parkingSpot);
+
+    @Modifying
+    @Query("delete from Reservation r where r.parkingSpot.id = :parkingSpotId")
+    int deleteByParkingSpotId(@Param("parkingSpotId") Long parkingSpotId);
+
+    @Modifying
+    @Query("delete from Reservation r where r.parkingSpot.id in (select ps.id from ParkingSpot ps where ps.parkingArea.id = :parkingAreaId)")
+    int deleteByParkingAreaId(@Param("parkingAreaId") Long parkingAreaId);
 }
@@ -1,17 +1,30 @@
 package pw.react.backend.dao;
 
+import jakarta.persistence.QueryHint;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import pw.react.backend.models.User;
+import pw.react.backend.utils.UserRole;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long>, JpaSpecificationExecutor<User> {
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<User> findByUsername(String username);
     Boolean existsByUsername(String username);
+    boolean existsByRoleAndPasswordHashIsNotNull(UserRole role);
+
+    @Query("select u.id, u.firstName, u.lastName from User u")
+    List<Object[]> findAllNames();
+
+    @Query("select u.username from User u")
+    List<String> findAllUsernames();
 }
 
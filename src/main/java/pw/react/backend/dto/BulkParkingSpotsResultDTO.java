@@ -0,0 +1,4 @@
+package pw.react.backend.dto;
+
+public record BulkParkingSpotsResultDTO(Long parkingAreaId, int created) {
+}
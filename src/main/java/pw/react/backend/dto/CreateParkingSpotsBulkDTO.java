@@ -0,0 +1,7 @@
+package pw.react.backend.dto;
+
+import java.util.List;
+
+/// Either `pattern` (e.g. "A1..A500", "B001..B120") or an explicit `spotNumbers` list.
+public record CreateParkingSpotsBulkDTO(String pattern, List<String> spotNumbers, boolean isAvailable) {
+}
@@ -1,12 +1,18 @@
 package pw.react.backend.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.validation.constraints.Email;
 import pw.react.backend.models.User;
 import pw.react.backend.utils.UserRole;
 
-public record CreateUserDTO(String username, @Email String email, String firstName, String lastName, UserRole role) {
+public record CreateUserDTO(String username, @Email String email, String firstName, String lastName, UserRole role,
+                            @JsonProperty(access = JsonProperty.Access.WRITE_ONLY) String password) {
     public static CreateUserDTO fromModel(User user) {
-        return new CreateUserDTO(user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole());
+        return new CreateUserDTO(user.getUsername(), user.getEmail(), user.getFirstName(), user.getLastName(), user.getRole(), null);
+    }
+
+    public CreateUserDTO withRole(UserRole role) {
+        return new CreateUserDTO(username, email, firstName, lastName, role, password);
     }
 
     public User toModel() {
@@ -1,5 +1,4 @@
 package pw.react.backend.dto;
 
-// possible to add password here later
-public record LoginDTO(String username) {
+public record LoginDTO(String username, String password) {
 }
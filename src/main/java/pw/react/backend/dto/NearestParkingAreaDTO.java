@@ -0,0 +1,14 @@
+package pw.react.backend.dto;
+
+import pw.react.backend.models.ParkingArea;
+
+import java.math.BigDecimal;
+
+public record NearestParkingAreaDTO(Long parkingAreaId, String name, String address, String city, BigDecimal hourlyRate,
+                                    BigDecimal longitude, BigDecimal latitude, double distanceKm, long freeSpots) {
+    public static NearestParkingAreaDTO fromModel(ParkingArea parkingArea, double distanceKm, long freeSpots) {
+        return new NearestParkingAreaDTO(parkingArea.getId(), parkingArea.getName(), parkingArea.getAddress(),
+                parkingArea.getCity(), parkingArea.getHourlyRate(), parkingArea.getLongitude(), parkingArea.getLatitude(),
+                distanceKm, freeSpots);
+    }
+}
@@ -0,0 +1,14 @@
+package pw.react.backend.dto;
+
+import pw.react.backend.models.ParkingArea;
+
+import java.math.BigDecimal;
+
+public record ReturnParkingAreaDTO(Long id, String name, String address, String city, BigDecimal hourlyRate,
+                                   BigDecimal longitude, BigDecimal latitude, long freeSpots) {
+    public static ReturnParkingAreaDTO fromModel(ParkingArea parkingArea, long freeSpots) {
+        return new ReturnParkingAreaDTO(parkingArea.getId(), parkingArea.getName(), parkingArea.getAddress(),
+                parkingArea.getCity(), parkingArea.getHourlyRate(), parkingArea.getLongitude(), parkingArea.getLatitude(),
+                freeSpots);
+    }
+}
@@ -0,0 +1,7 @@
+package pw.react.backend.dto;
+
+import java.util.List;
+
+/// One page of a seek (keyset) listing; `nextCursor` is null on the last page.
+public record SeekPageDTO<T>(List<T> content, int size, String nextCursor) {
+}
@@ -0,0 +1,65 @@
+package pw.react.backend.models;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class BackgroundJob {
+    public enum Status { PENDING, RUNNING, COMPLETED, FAILED }
+    private static final int MAX_ERRORS = 100;
+
+    private final String id;
+    private final String type;
+    private final LocalDateTime createdAt;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final List<String> errors = new ArrayList<>();
+    private volatile Status status = Status.PENDING;
+    private volatile String message;
+    private volatile LocalDateTime finishedAt;
+
+    public BackgroundJob(String id, String type) {
+        this.id = id;
+        this.type = type;
+        this.createdAt = LocalDateTime.now();
+    }
+
+    public void start() { status = Status.RUNNING; }
+    public void complete() { finish(Status.COMPLETED); }
+    public void fail(String message) {
+        this.message = message;
+        finish(Status.FAILED);
+    }
+    private void finish(Status status) {
+        this.finishedAt = LocalDateTime.now();
+        this.status = status;
+    }
+    public boolean isFinished() { return status == Status.COMPLETED || status == Status.FAILED; }
+    public void addProcessed(long count) { processed.addAndGet(count); }
+    public void addError(String error) { addError(1, error); }
+    /// Counts `count` rejected items under one message; only the first MAX_ERRORS messages are kept.
+    public void addError(long count, String error) {
+        rejected.addAndGet(count);
+        synchronized (errors) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+
+    public String getId() { return id; }
+    public String getType() { return type; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public long getProcessed() { return processed.get(); }
+    public long getRejected() { return rejected.get(); }
+    public List<String> getErrors() {
+        synchronized (errors) {
+            return List.copyOf(errors);
+        }
+    }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+}
@@ -1,11 +1,15 @@
 package pw.react.backend.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parkingArea")
 public class ParkingArea {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
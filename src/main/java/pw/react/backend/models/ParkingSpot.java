@@ -1,9 +1,14 @@
 package pw.react.backend.models;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
-@Table
+// mirrors the Flyway index (V2) for schemas generated from the entities; imports upsert on it
+@Table(uniqueConstraints = @UniqueConstraint(name = "ux_parking_spot_area_number", columnNames = {"parkingAreaId", "spotNumber"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "parkingSpot")
 public class ParkingSpot {
 
     @Id
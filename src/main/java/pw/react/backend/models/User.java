@@ -1,12 +1,19 @@
 package pw.react.backend.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import pw.react.backend.utils.TrigramIndex;
 import pw.react.backend.utils.UserRole;
 
 import java.util.Collection;
 
 @Entity
 @Table
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,6 +28,28 @@ public class User {
     private String lastName;
     @Column(nullable = false)
     private UserRole role;
+    /// Normalized copies of the names for indexed prefix search, see UserSpecification.
+    @JsonIgnore
+    private String firstNameSearch;
+    @JsonIgnore
+    private String lastNameSearch;
+    /// PasswordHasher output, null for users who never set a password.
+    @JsonIgnore
+    private String passwordHash;
+    /// Epoch millis; session tokens issued at or before it no longer verify, see SessionTokenService.
+    @JsonIgnore
+    private Long tokensNotBefore;
+    /// New plain-text password accepted on update, never stored or returned.
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
+    private String password;
+
+    @PrePersist
+    @PreUpdate
+    protected void normalizeNames() {
+        firstNameSearch = TrigramIndex.normalize(firstName);
+        lastNameSearch = TrigramIndex.normalize(lastName);
+    }
 
     public Long getId() {
         return id;
@@ -46,4 +75,12 @@ public class User {
     public void setLastName(String lastName) { this.lastName = lastName; }
     public UserRole getRole() { return role; }
     public void setRole(UserRole role) { this.role = role; }
+    public String getFirstNameSearch() { return firstNameSearch; }
+    public String getLastNameSearch() { return lastNameSearch; }
+    public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    public Long getTokensNotBefore() { return tokensNotBefore; }
+    public void setTokensNotBefore(Long tokensNotBefore) { this.tokensNotBefore = tokensNotBefore; }
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
 }
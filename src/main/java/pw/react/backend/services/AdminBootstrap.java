@@ -0,0 +1,71 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.User;
+import pw.react.backend.utils.PasswordHasher;
+import pw.react.backend.utils.UserRole;
+
+import java.util.Optional;
+
+/// Gives `parkly.auth.admin-username` the ADMIN role and `parkly.auth.admin-password` at startup, so there is
+/// an admin who can log in once `parkly.auth.enforce=true` (sign-up only creates users, and users from before
+/// passwords have none). The user is created when missing. An account that already has a password is left
+/// alone, so a password changed through the API is not reset on the next start.
+@Component
+public class AdminBootstrap {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminBootstrap.class);
+
+    private final UserRepository userRepository;
+    private final UniqueNameFilter uniqueNameFilter;
+    private final UserSearchIndex userSearchIndex;
+    private final String username;
+    private final String password;
+    private final boolean enforce;
+
+    public AdminBootstrap(UserRepository userRepository, UniqueNameFilter uniqueNameFilter, UserSearchIndex userSearchIndex,
+                          @Value("${parkly.auth.admin-username:admin}") String username,
+                          @Value("${parkly.auth.admin-password:}") String password,
+                          @Value("${parkly.auth.enforce:false}") boolean enforce) {
+        this.userRepository = userRepository;
+        this.uniqueNameFilter = uniqueNameFilter;
+        this.userSearchIndex = userSearchIndex;
+        this.username = username;
+        this.password = password;
+        this.enforce = enforce;
+    }
+
+    @PostConstruct
+    protected void init() {
+        if (password == null || password.isBlank()) {
+            if (enforce && !userRepository.existsByRoleAndPasswordHashIsNotNull(UserRole.ADMIN)) {
+                log.warn("parkly.auth.enforce=true but no admin has a password: set parkly.auth.admin-password to create one");
+            }
+            return;
+        }
+        Optional<User> existing = userRepository.findByUsername(username);
+        if (existing.isPresent() && existing.get().getPasswordHash() != null) {
+            log.info("Admin {} already has a password, parkly.auth.admin-password is not applied", username);
+            return;
+        }
+
+        User admin = existing.orElseGet(User::new);
+        if (existing.isEmpty()) {
+            admin.setUsername(username);
+            admin.setEmail(username + "@localhost");
+            admin.setFirstName("Admin");
+            admin.setLastName("Admin");
+        }
+        admin.setRole(UserRole.ADMIN);
+        admin.setPasswordHash(PasswordHasher.hash(password));
+        User saved = userRepository.save(admin);
+        uniqueNameFilter.usernames().add(saved.getUsername());
+        userSearchIndex.put(saved);
+        log.info("{} admin {} with the password from parkly.auth.admin-password", existing.isEmpty() ? "Created" : "Set up", username);
+    }
+}
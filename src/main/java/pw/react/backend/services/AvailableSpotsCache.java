@@ -0,0 +1,104 @@
+package pw.react.backend.services;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import pw.react.backend.dto.ReturnParkingSpotDTO;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/// Ready-to-serialize lists of available spots per parking area.
+/// An entry is dropped after commit of any change to a spot in its area; each entry remembers
+/// the generation it was loaded at, so a load racing with a change is never served.
+/// Generations exist only for areas whose load succeeded and are dropped when the area is deleted,
+/// so probing unknown ids leaves nothing behind.
+@Component
+public class AvailableSpotsCache {
+
+    private record Entry(long generation, List<ReturnParkingSpotDTO> spots) { }
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /// `loader` throws for an area that does not exist.
+    public List<ReturnParkingSpotDTO> get(Long parkingAreaId, Supplier<List<ReturnParkingSpotDTO>> loader) {
+        AtomicLong fresh = new AtomicLong();
+        AtomicLong counter = generations.putIfAbsent(parkingAreaId, fresh);
+        if (counter == null) {
+            counter = fresh;
+        }
+        long generation = counter.get();
+        Entry entry = entries.get(parkingAreaId);
+        if (entry != null && entry.generation() == generation) {
+            hits.increment();
+            return entry.spots();
+        }
+        misses.increment();
+        List<ReturnParkingSpotDTO> spots;
+        try {
+            spots = List.copyOf(loader.get());
+        } catch (RuntimeException e) {
+            generations.remove(parkingAreaId, fresh);
+            throw e;
+        }
+        // not cached if the area was deleted meanwhile; remove() drops the generation before the entry
+        generations.computeIfPresent(parkingAreaId, (id, current) -> {
+            if (current.get() == generation) {
+                entries.put(id, new Entry(generation, spots));
+            }
+            return current;
+        });
+        return spots;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParkingSpotChanged(ParkingSpotChangedEvent event) {
+        invalidate(event.parkingAreaId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParkingAreaDeleted(ParkingAreaDeletedEvent event) {
+        remove(event.parkingAreaId());
+    }
+
+    public void invalidate(Long parkingAreaId) {
+        if (parkingAreaId == null) {
+            return;
+        }
+        AtomicLong counter = generations.get(parkingAreaId);
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+        entries.remove(parkingAreaId);
+    }
+
+    public void remove(Long parkingAreaId) {
+        if (parkingAreaId == null) {
+            return;
+        }
+        generations.remove(parkingAreaId);
+        entries.remove(parkingAreaId);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    int trackedAreas() {
+        return generations.size();
+    }
+}
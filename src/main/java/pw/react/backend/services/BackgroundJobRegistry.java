@@ -0,0 +1,59 @@
+package pw.react.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+import pw.react.backend.models.BackgroundJob;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/// Runs long operations on the application task executor and keeps their status for polling.
+@Component
+public class BackgroundJobRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(BackgroundJobRegistry.class);
+    private static final int MAX_JOBS = 1000;
+
+    private final AsyncTaskExecutor taskExecutor;
+    private final Map<String, BackgroundJob> jobs = new ConcurrentHashMap<>();
+
+    public BackgroundJobRegistry(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor taskExecutor) {
+        this.taskExecutor = taskExecutor;
+    }
+
+    public BackgroundJob submit(String type, Consumer<BackgroundJob> work) {
+        evictFinished();
+        BackgroundJob job = new BackgroundJob(UUID.randomUUID().toString(), type);
+        jobs.put(job.getId(), job);
+        taskExecutor.execute(() -> {
+            job.start();
+            try {
+                work.accept(job);
+                job.complete();
+            } catch (RuntimeException e) {
+                log.error("Job {} [{}] failed", job.getId(), type, e);
+                job.fail(e.getMessage());
+            }
+        });
+        return job;
+    }
+
+    public Optional<BackgroundJob> find(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    private void evictFinished() {
+        if (jobs.size() < MAX_JOBS) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(1);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
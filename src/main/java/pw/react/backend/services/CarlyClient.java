@@ -0,0 +1,16 @@
+package pw.react.backend.services;
+
+import pw.react.backend.dto.CarsDTO;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/// Outbound calls to the Carly car rental service.
+public interface CarlyClient {
+    /// All cars, or empty if Carly could not be reached after retrying.
+    Optional<CarsDTO> getCars();
+    /// Returns status code from Carly server upon create Carly user try, 500 if Carly could not be reached.
+    int createUser(String email);
+    /// Returns status code from Carly server upon create reservation try, 500 if Carly could not be reached.
+    int createReservation(String carId, LocalDateTime startDate, LocalDateTime endDate, String email);
+}
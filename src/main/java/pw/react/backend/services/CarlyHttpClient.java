@@ -0,0 +1,116 @@
+package pw.react.backend.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import pw.react.backend.dto.CarsDTO;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+/// One shared HttpClient (and its connection pool) for all Carly calls instead of one per call.
+/// Calls block the calling thread; with virtual threads enabled that is a cheap virtual thread,
+/// and the client's own async work runs on virtual threads too.
+class CarlyHttpClient implements CarlyClient {
+
+    private static final Logger log = LoggerFactory.getLogger(CarlyHttpClient.class);
+    private static final int GET_CARS_TRIES = 5;
+
+    private final String carlyHostname;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    CarlyHttpClient(String carlyHostname, Duration connectTimeout, Duration requestTimeout, Executor executor) {
+        this.carlyHostname = carlyHostname;
+        this.requestTimeout = requestTimeout;
+        HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(connectTimeout);
+        if (executor != null) {
+            builder.executor(executor);
+        }
+        this.client = builder.build();
+    }
+
+    @Override
+    public Optional<CarsDTO> getCars() {
+        int tries = GET_CARS_TRIES;
+        while (tries > 0) {
+            int page_ = 0;
+            int size_ = Integer.MAX_VALUE;
+            String sort = "asc";
+
+            String urlWithParams = String.format("%s/cars?page=%d&size=%d&sort=%s", carlyHostname, page_, size_, sort);
+
+            log.debug("Carly at: {}", urlWithParams);
+
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(urlWithParams))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            try {
+                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                return Optional.of(objectMapper.readValue(response.body(), CarsDTO.class));
+            }
+            catch (InterruptedException | IOException e) {
+                log.warn("Could not get cars from Carly (try {} of {}): {}", GET_CARS_TRIES - tries + 1, GET_CARS_TRIES, e.toString());
+                if (e instanceof InterruptedException) {
+                    Thread.currentThread().interrupt();
+                    return Optional.empty();
+                }
+            }
+            tries--;
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public int createUser(String email) {
+        String urlWithParams = String.format("%s/customers/external", carlyHostname);
+        String requestBody = "{\"email\": \"%s\"}".formatted(email);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(urlWithParams))
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .header("Content-Type", "application/json")
+                .build();
+        return send(request);
+    }
+
+    @Override
+    public int createReservation(String carId, LocalDateTime startDate, LocalDateTime endDate, String email) {
+        String urlWithParams = String.format("%s/rentals/", carlyHostname);
+        String requestBody = "{\"carId\": \"%s\", \"startAt\": \"%s\", \"endAt\": \"%s\"}".formatted(carId, startDate, endDate);
+
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(urlWithParams))
+                .timeout(requestTimeout)
+                .POST(HttpRequest.BodyPublishers.ofString(requestBody))
+                .header("Content-Type", "application/json")
+                .header("Authorization", "Bearer " + email)
+                .build();
+        return send(request);
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            return response.statusCode();
+        }
+        catch (InterruptedException | IOException e) {
+            log.warn("Could not get to Carly, {} {}: {}", request.method(), request.uri(), e.toString());
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            return 500;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pw.react.backend.dao.ParkingSpotRepository;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Live number of available parking spots per parking area, kept in memory.
+/// Loaded with a single grouped query at startup and adjusted on every spot flip.
+/// A periodic reconciliation against the database repairs any drift.
+///
+/// Every adjustment made inside a transaction is announced before the commit and applied after it,
+/// so between the two the database already has the change and the counter does not. Reconciliation
+/// only overwrites a counter that had no adjustment pending or applied while the database was read,
+/// which makes it safe to run at any time and idempotent.
+@Component
+public class FreeSpotCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(FreeSpotCounter.class);
+
+    private final ParkingSpotRepository parkingSpotRepository;
+    private final Map<Long, Counter> counters = new ConcurrentHashMap<>();
+
+    public FreeSpotCounter(ParkingSpotRepository parkingSpotRepository) {
+        this.parkingSpotRepository = parkingSpotRepository;
+    }
+
+    @PostConstruct
+    protected void init() {
+        loadCounts().forEach((parkingAreaId, count) -> counters.put(parkingAreaId, new Counter(count)));
+        log.info("Loaded free spot counters for {} parking areas", counters.size());
+    }
+
+    @Scheduled(fixedDelayString = "${parkly.free-spots.reconcile-interval:PT10M}",
+            initialDelayString = "${parkly.free-spots.reconcile-interval:PT10M}")
+    protected void scheduledReconcile() {
+        int repaired = reconcile();
+        if (repaired > 0) {
+            log.warn("Repaired {} drifted free spot counters", repaired);
+        }
+    }
+
+    /// Compares every counter with the database and repairs the ones that drifted.
+    /// Counters with adjustments in flight while the check was running are left for the next round.
+    /// Returns the number of repaired counters.
+    public int reconcile() {
+        Map<Long, Long> before = new HashMap<>();
+        counters.forEach((parkingAreaId, counter) -> before.put(parkingAreaId, counter.quietVersion()));
+        Map<Long, Long> actual = loadCounts();
+
+        Set<Long> parkingAreaIds = new HashSet<>(actual.keySet());
+        parkingAreaIds.addAll(counters.keySet());
+
+        int repaired = 0;
+        for (Long parkingAreaId : parkingAreaIds) {
+            long expected = actual.getOrDefault(parkingAreaId, 0L);
+            Counter counter = counters.computeIfAbsent(parkingAreaId, k -> new Counter());
+            if (counter.repair(before.getOrDefault(parkingAreaId, 0L), expected, parkingAreaId)) {
+                repaired++;
+            }
+        }
+        return repaired;
+    }
+
+    /// Never negative for callers; a counter that went below zero is logged and left for reconciliation.
+    public long get(Long parkingAreaId) {
+        Counter counter = counters.get(parkingAreaId);
+        return counter == null ? 0 : Math.max(0, counter.value());
+    }
+
+    public boolean hasFreeSpots(long parkingAreaId) {
+        return get(parkingAreaId) > 0;
+    }
+
+    /// Applied after commit when called inside a transaction, immediately otherwise.
+    /// Callers must adjust within the transaction that changes the spots, or the change is
+    /// visible in the database before the counter knows about it.
+    public void adjust(Long parkingAreaId, long delta) {
+        if (parkingAreaId == null || delta == 0) {
+            return;
+        }
+        Counter counter = counters.computeIfAbsent(parkingAreaId, k -> new Counter());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.announce();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    counter.complete(status == STATUS_COMMITTED ? delta : 0, parkingAreaId);
+                }
+            });
+        } else {
+            counter.announce();
+            counter.complete(delta, parkingAreaId);
+        }
+    }
+
+    public void remove(Long parkingAreaId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    counters.remove(parkingAreaId);
+                }
+            });
+        } else {
+            counters.remove(parkingAreaId);
+        }
+    }
+
+    private Map<Long, Long> loadCounts() {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : parkingSpotRepository.countAvailableSpotsGroupedByParkingArea()) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        return counts;
+    }
+
+    private static final class Counter {
+        private long value;
+        /// bumped by every applied adjustment and repair
+        private long version;
+        /// adjustments announced whose transaction has not completed yet
+        private int pending;
+
+        Counter() {
+        }
+
+        Counter(long value) {
+            this.value = value;
+        }
+
+        synchronized long value() {
+            return value;
+        }
+
+        /// The version, or -1 while adjustments are pending.
+        synchronized long quietVersion() {
+            return pending > 0 ? -1 : version;
+        }
+
+        synchronized void announce() {
+            pending++;
+        }
+
+        synchronized void complete(long delta, Long parkingAreaId) {
+            pending--;
+            if (delta == 0) {
+                return;
+            }
+            value += delta;
+            version++;
+            if (value < 0) {
+                log.warn("Free spot counter of parking area {} went negative ({}), the next reconciliation repairs it", parkingAreaId, value);
+            }
+        }
+
+        /// Overwrites the value with the database count if nothing touched the counter since `seenVersion`.
+        synchronized boolean repair(long seenVersion, long expected, Long parkingAreaId) {
+            if (seenVersion < 0 || pending > 0 || version != seenVersion || value == expected) {
+                return false;
+            }
+            log.warn("Free spot counter of parking area {} drifted: {} in memory, {} in database", parkingAreaId, value, expected);
+            value = expected;
+            version++;
+            return true;
+        }
+    }
+}
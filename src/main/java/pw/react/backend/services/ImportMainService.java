@@ -0,0 +1,276 @@
+package pw.react.backend.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+import pw.react.backend.exceptions.ModelValidationException;
+import pw.react.backend.models.BackgroundJob;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.utils.ImportRowReader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/// Imports parking areas and spots from CSV or NDJSON files.
+/// The upload is copied to a temp file and read row by row on a background job; valid rows are
+/// upserted in batches, each batch in its own transaction, so heap use stays flat for any file size.
+@Service
+public class ImportMainService implements ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportMainService.class);
+    private static final int MAX_BATCH_SIZE = 10_000;
+
+    private static final String UPSERT_PARKING_AREA = "insert into parking_area (name, address, city, hourly_rate, longitude, latitude) " +
+            "values (?, ?, ?, ?, ?, ?) on duplicate key update address = values(address), city = values(city), " +
+            "hourly_rate = values(hourly_rate), longitude = values(longitude), latitude = values(latitude)";
+    /// Existing spots are left as they are: their availability belongs to the reservations, and a re-import
+    /// must not free a reserved spot. isAvailable only applies to spots the import creates.
+    private static final String INSERT_PARKING_SPOT = "insert into parking_spot (spot_number, parking_area_id, is_available) " +
+            "values (?, ?, ?) on duplicate key update id = id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final BackgroundJobRegistry backgroundJobRegistry;
+    private final ParkingAreaGeoIndex parkingAreaGeoIndex;
+    private final ParkingAreaSearchIndex parkingAreaSearchIndex;
+    private final FreeSpotCounter freeSpotCounter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UniqueNameFilter uniqueNameFilter;
+    private final ResourceVersions resourceVersions;
+    private final int defaultBatchSize;
+
+    public ImportMainService(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             EntityManagerFactory entityManagerFactory,
+                             BackgroundJobRegistry backgroundJobRegistry,
+                             ParkingAreaGeoIndex parkingAreaGeoIndex,
+                             ParkingAreaSearchIndex parkingAreaSearchIndex,
+                             FreeSpotCounter freeSpotCounter,
+                             ApplicationEventPublisher eventPublisher,
+                             UniqueNameFilter uniqueNameFilter,
+                             ResourceVersions resourceVersions,
+                             @Value("${parkly.import.batch-size:1000}") int defaultBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.backgroundJobRegistry = backgroundJobRegistry;
+        this.parkingAreaGeoIndex = parkingAreaGeoIndex;
+        this.parkingAreaSearchIndex = parkingAreaSearchIndex;
+        this.freeSpotCounter = freeSpotCounter;
+        this.eventPublisher = eventPublisher;
+        this.uniqueNameFilter = uniqueNameFilter;
+        this.resourceVersions = resourceVersions;
+        this.defaultBatchSize = defaultBatchSize;
+    }
+
+    private record Row(long line, String areaName, Object[] args) { }
+
+    @Override
+    public BackgroundJob importParkingAreas(MultipartFile file, String format, Integer batchSize) {
+        return submit("import-parking-areas", file, format, batchSize, this::parseParkingArea, this::upsertParkingAreas, () -> { });
+    }
+
+    @Override
+    public BackgroundJob importParkingSpots(MultipartFile file, String format, Integer batchSize) {
+        return submit("import-parking-spots", file, format, batchSize, this::parseParkingSpot, this::upsertParkingSpots,
+                freeSpotCounter::reconcile);
+    }
+
+    private BackgroundJob submit(String type, MultipartFile file, String format, Integer batchSize,
+                                 RowParser parser,
+                                 BatchWriter writer, Runnable onFinish) {
+        if (file == null || file.isEmpty()) {
+            throw new ModelValidationException("File is empty");
+        }
+        int size = batchSize == null ? defaultBatchSize : batchSize;
+        if (size < 1 || size > MAX_BATCH_SIZE) {
+            throw new ModelValidationException("Batch size must be between 1 and " + MAX_BATCH_SIZE);
+        }
+        ImportRowReader.Format rowFormat;
+        try {
+            rowFormat = ImportRowReader.Format.detect(format, file.getOriginalFilename(), file.getContentType());
+        } catch (IllegalArgumentException e) {
+            throw new ModelValidationException(e.getMessage());
+        }
+
+        // the multipart temp file is gone once the request ends, the job needs its own copy
+        Path copy;
+        try {
+            copy = Files.createTempFile("parkly-import-", "." + rowFormat.name().toLowerCase(Locale.ROOT));
+            file.transferTo(copy);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not store uploaded file", e);
+        }
+
+        return backgroundJobRegistry.submit(type, job -> {
+            try (ImportRowReader reader = ImportRowReader.open(copy, rowFormat)) {
+                List<Row> batch = new ArrayList<>(size);
+                while (true) {
+                    Map<String, String> values;
+                    try {
+                        values = reader.next();
+                        if (values == null) {
+                            break;
+                        }
+                        batch.add(parser.parse(reader.lineNumber(), values));
+                    } catch (IllegalArgumentException e) {
+                        job.addError("line " + reader.lineNumber() + ": " + e.getMessage());
+                        continue;
+                    }
+                    if (batch.size() == size) {
+                        write(job, batch, writer);
+                    }
+                }
+                write(job, batch, writer);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                onFinish.run();
+                deleteQuietly(copy);
+            }
+            log.info("Job {} [{}] imported {} rows, rejected {}", job.getId(), type, job.getProcessed(), job.getRejected());
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowParser {
+        Row parse(long line, Map<String, String> values);
+    }
+
+    @FunctionalInterface
+    private interface BatchWriter {
+        void write(BackgroundJob job, List<Row> batch);
+    }
+
+    private void write(BackgroundJob job, List<Row> batch, BatchWriter writer) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            writer.write(job, batch);
+        } catch (DataAccessException e) {
+            job.addError(batch.size(), "lines " + batch.get(0).line() + "-" + batch.get(batch.size() - 1).line()
+                    + ": batch rejected, " + e.getMostSpecificCause().getMessage());
+        }
+        batch.clear();
+    }
+
+    private Row parseParkingArea(long line, Map<String, String> values) {
+        String name = required(values, "name");
+        BigDecimal latitude = decimal(values, "latitude");
+        BigDecimal longitude = decimal(values, "longitude");
+        if (latitude != null && latitude.abs().compareTo(BigDecimal.valueOf(90)) > 0) {
+            throw new IllegalArgumentException("latitude must be within [-90, 90]");
+        }
+        if (longitude != null && longitude.abs().compareTo(BigDecimal.valueOf(180)) > 0) {
+            throw new IllegalArgumentException("longitude must be within [-180, 180]");
+        }
+        return new Row(line, name, new Object[]{name, required(values, "address"), required(values, "city"),
+                decimal(values, "hourlyRate"), longitude, latitude});
+    }
+
+    private Row parseParkingSpot(long line, Map<String, String> values) {
+        String isAvailable = values.get("isAvailable");
+        boolean available = true;
+        if (isAvailable != null && !isAvailable.isBlank()) {
+            available = switch (isAvailable.trim().toLowerCase(Locale.ROOT)) {
+                case "true", "1", "yes" -> true;
+                case "false", "0", "no" -> false;
+                default -> throw new IllegalArgumentException("isAvailable must be true or false");
+            };
+        }
+        return new Row(line, required(values, "parkingArea"), new Object[]{required(values, "spotNumber"), null, available});
+    }
+
+    private void upsertParkingAreas(BackgroundJob job, List<Row> batch) {
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPSERT_PARKING_AREA, batch.stream().map(Row::args).toList()));
+
+        // refresh the in-memory indexes and drop stale cached entities, the upsert bypassed Hibernate
+        List<String> names = batch.stream().map(Row::areaName).distinct().toList();
+        names.forEach(uniqueNameFilter.parkingAreaNames()::add);
+        jdbcTemplate.query("select id, name, address, city, latitude, longitude from parking_area where name in (" + placeholders(names.size()) + ")",
+                rs -> {
+                    Long id = rs.getLong("id");
+                    parkingAreaGeoIndex.put(id, rs.getBigDecimal("latitude"), rs.getBigDecimal("longitude"));
+                    parkingAreaSearchIndex.put(id, rs.getString("name"), rs.getString("address"), rs.getString("city"));
+                    resourceVersions.parkingAreaChanged(id);
+                }, names.toArray());
+        entityManagerFactory.getCache().evict(ParkingArea.class);
+        job.addProcessed(batch.size());
+    }
+
+    private void upsertParkingSpots(BackgroundJob job, List<Row> batch) {
+        List<String> names = batch.stream().map(Row::areaName).distinct().toList();
+        Map<String, Long> areaIds = new HashMap<>();
+        jdbcTemplate.query("select id, name from parking_area where name in (" + placeholders(names.size()) + ")",
+                rs -> { areaIds.put(rs.getString("name"), rs.getLong("id")); }, names.toArray());
+
+        List<Object[]> args = new ArrayList<>(batch.size());
+        Set<Long> touched = new HashSet<>();
+        for (Row row : batch) {
+            Long areaId = areaIds.get(row.areaName());
+            if (areaId == null) {
+                job.addError("line " + row.line() + ": parking area '" + row.areaName() + "' does not exist");
+                continue;
+            }
+            row.args()[1] = areaId;
+            args.add(row.args());
+            touched.add(areaId);
+        }
+        if (args.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_PARKING_SPOT, args));
+
+        entityManagerFactory.getCache().evict(ParkingSpot.class);
+        touched.forEach(areaId -> eventPublisher.publishEvent(new ParkingSpotChangedEvent(areaId)));
+        job.addProcessed(args.size());
+    }
+
+    private static String required(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return value.trim();
+    }
+
+    private static BigDecimal decimal(Map<String, String> values, String column) {
+        String value = values.get(column);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return new BigDecimal(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number");
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Could not delete import file {}", file, e);
+        }
+    }
+}
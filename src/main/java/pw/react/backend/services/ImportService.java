@@ -0,0 +1,11 @@
+package pw.react.backend.services;
+
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import pw.react.backend.models.BackgroundJob;
+
+@Service
+public interface ImportService {
+    BackgroundJob importParkingAreas(MultipartFile file, String format, Integer batchSize);
+    BackgroundJob importParkingSpots(MultipartFile file, String format, Integer batchSize);
+}
@@ -0,0 +1,43 @@
+package pw.react.backend.services;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+/// Hit/miss and size metrics of the in-memory caches and filters, named like Micrometer's cache
+/// metrics (`cache.gets`, `cache.size`) so dashboards treat them like the Hibernate cache regions.
+@Component
+public class InMemoryCacheMetrics implements MeterBinder {
+
+    private final AvailableSpotsCache availableSpotsCache;
+    private final UniqueNameFilter uniqueNameFilter;
+
+    public InMemoryCacheMetrics(AvailableSpotsCache availableSpotsCache, UniqueNameFilter uniqueNameFilter) {
+        this.availableSpotsCache = availableSpotsCache;
+        this.uniqueNameFilter = uniqueNameFilter;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", availableSpotsCache, AvailableSpotsCache::hits)
+                .tag("cache", "availableSpots").tag("result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", availableSpotsCache, AvailableSpotsCache::misses)
+                .tag("cache", "availableSpots").tag("result", "miss").register(registry);
+        Gauge.builder("cache.size", availableSpotsCache, AvailableSpotsCache::size)
+                .tag("cache", "availableSpots").register(registry);
+
+        bindUniqueNames(registry, "usernames", uniqueNameFilter.usernames());
+        bindUniqueNames(registry, "parkingAreaNames", uniqueNameFilter.parkingAreaNames());
+    }
+
+    private static void bindUniqueNames(MeterRegistry registry, String domain, UniqueNameFilter.Domain filter) {
+        FunctionCounter.builder("parkly.unique_names.probes", filter, f -> f.statistics().probes())
+                .tag("domain", domain).register(registry);
+        FunctionCounter.builder("parkly.unique_names.skipped_queries", filter, f -> f.statistics().skippedQueries())
+                .tag("domain", domain).register(registry);
+        FunctionCounter.builder("parkly.unique_names.false_positives", filter, f -> f.statistics().falsePositives())
+                .tag("domain", domain).register(registry);
+    }
+}
@@ -1,22 +1,33 @@
 package pw.react.backend.services;
 
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.*;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import pw.react.backend.openapi.OpenApiConfig;
+import pw.react.backend.utils.ParklyJacksonModule;
 
 import javax.sql.DataSource;
+import java.time.Duration;
 import java.util.*;
 
 import static java.util.stream.Collectors.toSet;
 
 @Configuration
+@EnableScheduling
 @Import({
         NonBatchConfig.class, OpenApiConfig.class
 })
@@ -51,6 +62,21 @@ public class MainConfig {
         return new HttpBaseService(restTemplate);
     }
 
+    /// With `spring.threads.virtual.enabled` the client's async work runs on virtual threads as well.
+    @Bean
+    public CarlyClient carlyClient(@Value("${CARLY_HOSTNAME:}") String carlyHostname,
+                                   @Value("${carly.connect-timeout:PT5S}") Duration connectTimeout,
+                                   @Value("${carly.request-timeout:PT30S}") Duration requestTimeout,
+                                   @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+                                   MeterRegistry meterRegistry) {
+        SimpleAsyncTaskExecutor executor = null;
+        if (virtualThreads) {
+            executor = new SimpleAsyncTaskExecutor("carly-");
+            executor.setVirtualThreads(true);
+        }
+        return new TimedCarlyClient(new CarlyHttpClient(carlyHostname, connectTimeout, requestTimeout, executor), meterRegistry);
+    }
+
     @Bean
     public WebMvcConfigurer corsConfigurer() {
         return new WebMvcConfigurer() {
@@ -86,6 +112,25 @@ public class MainConfig {
                 .orElseGet(HashSet::new);
     }
 
+    /// Picked up by Boot's Jackson auto-configuration and registered after JavaTimeModule,
+    /// so its LocalDateTime and BigDecimal codecs win for every mapper built from the builder.
+    @Bean
+    public ParklyJacksonModule parklyJacksonModule() {
+        return new ParklyJacksonModule();
+    }
+
+    /// `Accept: application/cbor` and `application/x-jackson-smile` next to JSON, which stays the default.
+    /// Built from Boot's builder so the binary formats share the JSON mapper's modules and settings.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
     @Bean
     public String poolName(DataSource dataSource) {
         return dataSource.getClass().getSimpleName();
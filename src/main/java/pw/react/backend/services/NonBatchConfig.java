@@ -1,36 +1,49 @@
 package pw.react.backend.services;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
 import pw.react.backend.dao.*;
 import pw.react.backend.models.ParkingArea;
 import pw.react.backend.models.Reservation;
 
+import javax.sql.DataSource;
+
 @Profile("!batch")
 public class NonBatchConfig {
 
     @Bean
     @Qualifier("userService")
-    public UserService userService(UserRepository userRepository) {
-        return new UserMainService(userRepository);
+    public UserService userService(UserRepository userRepository, SessionTokenService sessionTokenService, UserSearchIndex userSearchIndex,
+                                   UniqueNameFilter uniqueNameFilter, ResourceVersions resourceVersions,
+                                   @Value("${parkly.auth.enforce:false}") boolean enforceAuth) {
+        return new UserMainService(userRepository, sessionTokenService, userSearchIndex, uniqueNameFilter, resourceVersions, enforceAuth);
     }
 
     @Bean
     @Qualifier("parkingAreaService")
-    public ParkingAreaService parkingAreaService(ParkingAreaRepository parkingAreaRepository, ParkingSpotRepository parkingSpotRepository, ReservationRepository reservationRepository) {
-        return new ParkingAreaMainService(parkingAreaRepository, parkingSpotRepository, reservationRepository);
+    public ParkingAreaService parkingAreaService(ParkingAreaRepository parkingAreaRepository, ParkingSpotRepository parkingSpotRepository, ReservationRepository reservationRepository,
+                                                 ParkingAreaGeoIndex parkingAreaGeoIndex, FreeSpotCounter freeSpotCounter, ParkingAreaSearchIndex parkingAreaSearchIndex,
+                                                 ApplicationEventPublisher eventPublisher, UniqueNameFilter uniqueNameFilter,
+                                                 ResourceVersions resourceVersions) {
+        return new ParkingAreaMainService(parkingAreaRepository, parkingSpotRepository, reservationRepository, parkingAreaGeoIndex, freeSpotCounter, parkingAreaSearchIndex, eventPublisher, uniqueNameFilter, resourceVersions);
     }
 
     @Bean
     @Qualifier("parkingSpotService")
-    public ParkingSpotService parkingSpotService(ParkingSpotRepository parkingSpotRepository, ParkingAreaRepository parkingAreaRepository, ReservationRepository reservationRepository) {
-        return new ParkingSpotMainService(parkingSpotRepository, parkingAreaRepository, reservationRepository);
+    public ParkingSpotService parkingSpotService(ParkingSpotRepository parkingSpotRepository, ParkingAreaRepository parkingAreaRepository, ReservationRepository reservationRepository,
+                                                 ParkingAreaGeoIndex parkingAreaGeoIndex, FreeSpotCounter freeSpotCounter, AvailableSpotsCache availableSpotsCache,
+                                                 ApplicationEventPublisher eventPublisher, JdbcTemplate jdbcTemplate) {
+        return new ParkingSpotMainService(parkingSpotRepository, parkingAreaRepository, reservationRepository, parkingAreaGeoIndex, freeSpotCounter, availableSpotsCache, eventPublisher, jdbcTemplate);
     }
 
     @Bean
     @Qualifier("reservationService")
-    public ReservationService reservationService(ReservationRepository reservationRepository, UserService userService, ParkingSpotService parkingSpotService, ParkingAreaService parkingAreaService) {
-        return new ReservationMainService(reservationRepository, userService, parkingSpotService);
+    public ReservationService reservationService(ReservationRepository reservationRepository, UserService userService, ParkingSpotService parkingSpotService, ParkingAreaService parkingAreaService,
+                                                 DataSource dataSource) {
+        return new ReservationMainService(reservationRepository, userService, parkingSpotService, dataSource);
     }
 }
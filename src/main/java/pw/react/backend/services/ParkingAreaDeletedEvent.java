@@ -0,0 +1,4 @@
+package pw.react.backend.services;
+
+/// Published when a parking area is deleted together with its spots and reservations.
+public record ParkingAreaDeletedEvent(Long parkingAreaId) { }
@@ -0,0 +1,212 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.utils.Utils;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongPredicate;
+
+/// In-memory grid index over parking area coordinates.
+/// Coordinates are converted to doubles once on insert, lookups never touch the database.
+@Component
+public class ParkingAreaGeoIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ParkingAreaGeoIndex.class);
+
+    // ~5.5 km per cell in latitude
+    private static final double CELL_SIZE_DEG = 0.05;
+    // On the 6371 km sphere of Utils.haversine; a rounded-up value shrinks the searched spans below the radius
+    private static final double KM_PER_DEG = Math.toRadians(6371);
+    // Past this many rings around the query cell we fall back to a plain scan
+    private static final int MAX_RINGS = 64;
+
+    public record Hit(Long parkingAreaId, double distanceKm) { }
+
+    private record Point(Long id, double latitude, double longitude, int latCell, int lonCell) { }
+
+    private final ParkingAreaRepository parkingAreaRepository;
+    private final Map<Long, Point> points = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public ParkingAreaGeoIndex(ParkingAreaRepository parkingAreaRepository) {
+        this.parkingAreaRepository = parkingAreaRepository;
+    }
+
+    @PostConstruct
+    protected void init() {
+        for (Object[] row : parkingAreaRepository.findAllCoordinates()) {
+            put((Long) row[0], (BigDecimal) row[1], (BigDecimal) row[2]);
+        }
+        log.info("Loaded {} parking areas into the geo index", points.size());
+    }
+
+    public void put(ParkingArea parkingArea) {
+        put(parkingArea.getId(), parkingArea.getLatitude(), parkingArea.getLongitude());
+    }
+
+    public synchronized void put(Long id, BigDecimal latitude, BigDecimal longitude) {
+        remove(id);
+        if (latitude == null || longitude == null) {
+            return;
+        }
+        double lat = latitude.doubleValue();
+        double lon = longitude.doubleValue();
+        Point point = new Point(id, lat, lon, cellIndex(lat), cellIndex(lon));
+        points.put(id, point);
+        cells.computeIfAbsent(cellKey(point.latCell(), point.lonCell()), k -> ConcurrentHashMap.newKeySet()).add(id);
+    }
+
+    public synchronized void remove(Long id) {
+        Point point = points.remove(id);
+        if (point == null) {
+            return;
+        }
+        cells.computeIfPresent(cellKey(point.latCell(), point.lonCell()), (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    /// Returns up to `limit` areas accepted by `filter`, closest first.
+    /// Rings of cells are scanned outwards until no unscanned cell can hold anything closer.
+    public List<Hit> nearest(double latitude, double longitude, int limit, LongPredicate filter) {
+        PriorityQueue<Hit> heap = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(Hit::distanceKm).reversed());
+        int latCell = cellIndex(latitude);
+        int lonCell = cellIndex(longitude);
+        int total = points.size();
+        int visited = 0;
+
+        int ring = 0;
+        for (; ring <= MAX_RINGS && visited < total; ring++) {
+            if (ring == 0) {
+                visited += scanCell(latCell, lonCell, latitude, longitude, limit, filter, heap);
+            } else {
+                for (int d = -ring; d <= ring; d++) {
+                    visited += scanCell(latCell - ring, lonCell + d, latitude, longitude, limit, filter, heap);
+                    visited += scanCell(latCell + ring, lonCell + d, latitude, longitude, limit, filter, heap);
+                }
+                for (int d = -ring + 1; d <= ring - 1; d++) {
+                    visited += scanCell(latCell + d, lonCell - ring, latitude, longitude, limit, filter, heap);
+                    visited += scanCell(latCell + d, lonCell + ring, latitude, longitude, limit, filter, heap);
+                }
+            }
+            if (heap.size() == limit && heap.peek().distanceKm() <= ringLowerBoundKm(latitude, ring)) {
+                return sorted(heap);
+            }
+        }
+
+        if (visited < total) {
+            int scannedRings = ring - 1;
+            for (Point point : points.values()) {
+                if (Math.abs(point.latCell() - latCell) > scannedRings || Math.abs(point.lonCell() - lonCell) > scannedRings) {
+                    offer(point, latitude, longitude, limit, filter, heap);
+                }
+            }
+        }
+        return sorted(heap);
+    }
+
+    /// Returns every area within `radiusKm`, closest first.
+    public List<Hit> within(double latitude, double longitude, double radiusKm) {
+        List<Hit> hits = new ArrayList<>();
+        double latSpan = radiusKm / KM_PER_DEG;
+        double cos = Math.cos(Math.toRadians(Math.min(89.0, Math.abs(latitude) + latSpan)));
+        double lonSpan = Math.min(180.0, radiusKm / (KM_PER_DEG * Math.max(cos, 0.01)));
+
+        int fromLat = cellIndex(latitude - latSpan), toLat = cellIndex(latitude + latSpan);
+        int fromLon = cellIndex(longitude - lonSpan), toLon = cellIndex(longitude + lonSpan);
+        long cellCount = (long) (toLat - fromLat + 1) * (toLon - fromLon + 1);
+
+        if (cellCount > points.size()) {
+            for (Point point : points.values()) {
+                addIfWithin(point, latitude, longitude, radiusKm, hits);
+            }
+        } else {
+            for (int la = fromLat; la <= toLat; la++) {
+                for (int lo = fromLon; lo <= toLon; lo++) {
+                    Set<Long> ids = cells.get(cellKey(la, lo));
+                    if (ids == null) {
+                        continue;
+                    }
+                    for (Long id : ids) {
+                        Point point = points.get(id);
+                        if (point != null) {
+                            addIfWithin(point, latitude, longitude, radiusKm, hits);
+                        }
+                    }
+                }
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    private int scanCell(int latCell, int lonCell, double latitude, double longitude, int limit,
+                         LongPredicate filter, PriorityQueue<Hit> heap) {
+        Set<Long> ids = cells.get(cellKey(latCell, lonCell));
+        if (ids == null) {
+            return 0;
+        }
+        int visited = 0;
+        for (Long id : ids) {
+            Point point = points.get(id);
+            if (point != null) {
+                offer(point, latitude, longitude, limit, filter, heap);
+                visited++;
+            }
+        }
+        return visited;
+    }
+
+    private static void offer(Point point, double latitude, double longitude, int limit,
+                              LongPredicate filter, PriorityQueue<Hit> heap) {
+        if (!filter.test(point.id())) {
+            return;
+        }
+        double distance = Utils.haversine(latitude, longitude, point.latitude(), point.longitude());
+        if (heap.size() < limit) {
+            heap.add(new Hit(point.id(), distance));
+        } else if (distance < heap.peek().distanceKm()) {
+            heap.poll();
+            heap.add(new Hit(point.id(), distance));
+        }
+    }
+
+    private static void addIfWithin(Point point, double latitude, double longitude, double radiusKm, List<Hit> hits) {
+        double distance = Utils.haversine(latitude, longitude, point.latitude(), point.longitude());
+        if (distance <= radiusKm) {
+            hits.add(new Hit(point.id(), distance));
+        }
+    }
+
+    private static List<Hit> sorted(PriorityQueue<Hit> heap) {
+        List<Hit> hits = new ArrayList<>(heap);
+        hits.sort(Comparator.comparingDouble(Hit::distanceKm));
+        return hits;
+    }
+
+    // Anything outside the scanned square is at least `ring` full cells away in latitude or longitude
+    private static double ringLowerBoundKm(double latitude, int ring) {
+        double maxLat = Math.min(89.0, Math.abs(latitude) + (ring + 1) * CELL_SIZE_DEG);
+        return ring * CELL_SIZE_DEG * KM_PER_DEG * Math.cos(Math.toRadians(maxLat));
+    }
+
+    private static int cellIndex(double degrees) {
+        return (int) Math.floor(degrees / CELL_SIZE_DEG);
+    }
+
+    private static Long cellKey(int latCell, int lonCell) {
+        return ((long) latCell << 32) | (lonCell & 0xffffffffL);
+    }
+}
@@ -1,36 +1,64 @@
 package pw.react.backend.services;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import pw.react.backend.dao.ParkingAreaRepository;
 import pw.react.backend.dao.ParkingSpotRepository;
 import pw.react.backend.dao.ReservationRepository;
+import pw.react.backend.dto.NearestParkingAreaDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
+import pw.react.backend.exceptions.ModelValidationException;
 import pw.react.backend.models.ParkingArea;
-import pw.react.backend.models.ParkingSpot;
 import pw.react.backend.models.User;
-import pw.react.backend.specifications.ParkingAreaSpecification;
-import pw.react.backend.specifications.UserSpecification;
 
-import java.util.Optional;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class ParkingAreaMainService implements ParkingAreaService {
 
+    private static final Set<String> SEARCHABLE_PARAMETERS = Set.of("", "address", "city", "name");
+    private static final double MAX_RADIUS_KM = 100;
+    private static final int MAX_NEAR_LIMIT = 1000;
+
     private final ParkingAreaRepository parkingAreaRepository;
     private final ParkingSpotRepository parkingSpotRepository;
     private final ReservationRepository reservationRepository;
+    private final ParkingAreaGeoIndex parkingAreaGeoIndex;
+    private final FreeSpotCounter freeSpotCounter;
+    private final ParkingAreaSearchIndex parkingAreaSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UniqueNameFilter uniqueNameFilter;
+    private final ResourceVersions resourceVersions;
 
     public ParkingAreaMainService(ParkingAreaRepository parkingAreaRepository,
                                   ParkingSpotRepository parkingSpotRepository,
-                                  ReservationRepository reservationRepository) {
+                                  ReservationRepository reservationRepository,
+                                  ParkingAreaGeoIndex parkingAreaGeoIndex,
+                                  FreeSpotCounter freeSpotCounter,
+                                  ParkingAreaSearchIndex parkingAreaSearchIndex,
+                                  ApplicationEventPublisher eventPublisher,
+                                  UniqueNameFilter uniqueNameFilter,
+                                  ResourceVersions resourceVersions) {
         this.parkingAreaRepository = parkingAreaRepository;
         this.parkingSpotRepository = parkingSpotRepository;
         this.reservationRepository = reservationRepository;
+        this.parkingAreaGeoIndex = parkingAreaGeoIndex;
+        this.freeSpotCounter = freeSpotCounter;
+        this.parkingAreaSearchIndex = parkingAreaSearchIndex;
+        this.eventPublisher = eventPublisher;
+        this.uniqueNameFilter = uniqueNameFilter;
+        this.resourceVersions = resourceVersions;
     }
 
     @Override
@@ -47,23 +75,25 @@ public class ParkingAreaMainService implements ParkingAreaService {
         searchQuery = searchQuery == null ? "" : searchQuery;
         searchQueryParameter = searchQueryParameter == null ? "" : searchQueryParameter;
 
-        Specification<ParkingArea> specification;
+        if (searchQuery.isEmpty() || !SEARCHABLE_PARAMETERS.contains(searchQueryParameter)) {
+            return parkingAreaRepository.findAll(pageable);
+        }
 
-        if (searchQueryParameter.isEmpty()) {
-            specification = Specification
-                    .where(ParkingAreaSpecification.hasAddress(searchQuery))
-                    .or(ParkingAreaSpecification.hasCity(searchQuery))
-                    .or(ParkingAreaSpecification.hasName(searchQuery));
-        } else {
-            specification = switch (searchQueryParameter) {
-                case "address" -> ParkingAreaSpecification.hasAddress(searchQuery);
-                case "city" -> ParkingAreaSpecification.hasCity(searchQuery);
-                case "name" -> ParkingAreaSpecification.hasName(searchQuery);
-                default -> Specification.where(null);
-            };
+        List<Long> ids = parkingAreaSearchIndex.search(searchQuery, searchQueryParameter, sortDirection.equalsIgnoreCase("desc"));
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.size());
         }
 
-        return parkingAreaRepository.findAll(specification, pageable);
+        Map<Long, ParkingArea> areas = parkingAreaRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(ParkingArea::getId, Function.identity()));
+        List<ParkingArea> content = pageIds.stream()
+                .map(areas::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.size());
     }
 
     @Override
@@ -71,12 +101,60 @@ public class ParkingAreaMainService implements ParkingAreaService {
         return parkingAreaRepository.findById(id);
     }
 
+    @Override
+    public long countFreeSpots(Long parkingAreaId) {
+        return freeSpotCounter.get(parkingAreaId);
+    }
+
+    @Override
+    public List<NearestParkingAreaDTO> getParkingAreasNear(double latitude, double longitude, double radiusKm, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ModelValidationException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (radiusKm <= 0 || radiusKm > MAX_RADIUS_KM) {
+            throw new ModelValidationException("Radius must be within (0, " + MAX_RADIUS_KM + "] km");
+        }
+        if (limit < 1) {
+            throw new ModelValidationException("Limit must be positive");
+        }
+        List<ParkingAreaGeoIndex.Hit> hits = parkingAreaGeoIndex.within(latitude, longitude, radiusKm);
+        if (hits.size() > Math.min(limit, MAX_NEAR_LIMIT)) {
+            hits = hits.subList(0, Math.min(limit, MAX_NEAR_LIMIT));
+        }
+        if (hits.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, ParkingArea> areas = parkingAreaRepository.findAllById(hits.stream().map(ParkingAreaGeoIndex.Hit::parkingAreaId).toList())
+                .stream()
+                .collect(Collectors.toMap(ParkingArea::getId, Function.identity()));
+        return hits.stream()
+                .filter(hit -> areas.containsKey(hit.parkingAreaId()))
+                .map(hit -> NearestParkingAreaDTO.fromModel(areas.get(hit.parkingAreaId()), hit.distanceKm(),
+                        freeSpotCounter.get(hit.parkingAreaId())))
+                .toList();
+    }
+
     @Override
     public ParkingArea createParkingArea(ParkingArea parkingArea) throws ModelAlreadyExistsException {
-        if (parkingAreaRepository.existsByName(parkingArea.getName())) {
+        UniqueNameFilter.Domain names = uniqueNameFilter.parkingAreaNames();
+        if (names.mightExist(parkingArea.getName())) {
+            if (parkingAreaRepository.existsByName(parkingArea.getName())) {
+                throw new ModelAlreadyExistsException(parkingArea.getName());
+            }
+            names.recordFalsePositive();
+        }
+        ParkingArea saved;
+        try {
+            saved = parkingAreaRepository.save(parkingArea);
+        } catch (DataIntegrityViolationException e) {
+            // a name the filter had not seen yet, the unique index has the final word
             throw new ModelAlreadyExistsException(parkingArea.getName());
         }
-        return parkingAreaRepository.save(parkingArea);
+        names.add(saved.getName());
+        parkingAreaGeoIndex.put(saved);
+        parkingAreaSearchIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -93,27 +171,47 @@ public class ParkingAreaMainService implements ParkingAreaService {
             pa.setLatitude(parkingArea.getLatitude());
 
             parkingAreaRepository.save(pa);
+            uniqueNameFilter.parkingAreaNames().add(pa.getName());
+            resourceVersions.parkingAreaChanged(id);
+            parkingAreaGeoIndex.put(pa);
+            parkingAreaSearchIndex.put(pa);
             return Optional.of(pa);
         }
         return Optional.empty();
     }
 
     @Override
+    @Transactional
     public Boolean deleteParkingArea(Long id) {
-        ParkingArea parkingArea = parkingAreaRepository.findById(id).orElse(null);
-
-        if (parkingArea == null) {
+        if (!parkingAreaRepository.existsById(id)) {
             return false;
         }
 
-        var list = parkingSpotRepository.findByParkingArea(parkingArea);
-        if (!list.isEmpty()) {
-            for (ParkingSpot spot : list) {
-                reservationRepository.findByParkingSpot(spot).ifPresent(reservationRepository::delete);
-                parkingSpotRepository.delete(spot);
-            }
-        }
-        parkingAreaRepository.deleteById(id);
+        reservationRepository.deleteByParkingAreaId(id);
+        parkingSpotRepository.deleteByParkingAreaId(id);
+        parkingAreaRepository.deleteAllByIdInBatch(List.of(id));
+        // a rolled back delete must leave the area findable
+        afterCommit(() -> {
+            parkingAreaGeoIndex.remove(id);
+            parkingAreaSearchIndex.remove(id);
+        });
+        freeSpotCounter.remove(id);
+        resourceVersions.parkingAreaChanged(id);
+        eventPublisher.publishEvent(new ParkingSpotChangedEvent(id));
+        eventPublisher.publishEvent(new ParkingAreaDeletedEvent(id));
         return true;
     }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
 }
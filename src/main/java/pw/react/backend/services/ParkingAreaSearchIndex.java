@@ -0,0 +1,80 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.utils.TrigramIndex;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// Substring search over parking area name, address and city without touching the database.
+/// Kept in sync by ParkingAreaMainService on create, update and delete.
+@Component
+public class ParkingAreaSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ParkingAreaSearchIndex.class);
+
+    private final ParkingAreaRepository parkingAreaRepository;
+    private final TrigramIndex names = new TrigramIndex();
+    private final TrigramIndex addresses = new TrigramIndex();
+    private final TrigramIndex cities = new TrigramIndex();
+    private final Map<Long, String> sortKeys = new ConcurrentHashMap<>();
+
+    public ParkingAreaSearchIndex(ParkingAreaRepository parkingAreaRepository) {
+        this.parkingAreaRepository = parkingAreaRepository;
+    }
+
+    @PostConstruct
+    protected void init() {
+        for (Object[] row : parkingAreaRepository.findAllSearchableFields()) {
+            put((Long) row[0], (String) row[1], (String) row[2], (String) row[3]);
+        }
+        log.info("Loaded {} parking areas into the search index", sortKeys.size());
+    }
+
+    public void put(ParkingArea parkingArea) {
+        put(parkingArea.getId(), parkingArea.getName(), parkingArea.getAddress(), parkingArea.getCity());
+    }
+
+    public void put(Long id, String name, String address, String city) {
+        names.put(id, name);
+        addresses.put(id, address);
+        cities.put(id, city);
+        sortKeys.put(id, TrigramIndex.normalize(address));
+    }
+
+    public void remove(Long id) {
+        names.remove(id);
+        addresses.remove(id);
+        cities.remove(id);
+        sortKeys.remove(id);
+    }
+
+    /// Ids of matching areas ordered by address, then id.
+    /// An empty `searchQueryParameter` searches name, address and city at once.
+    public List<Long> search(String searchQuery, String searchQueryParameter, boolean descending) {
+        Set<Long> ids = switch (searchQueryParameter) {
+            case "address" -> addresses.containing(searchQuery);
+            case "city" -> cities.containing(searchQuery);
+            case "name" -> names.containing(searchQuery);
+            default -> {
+                Set<Long> all = names.containing(searchQuery);
+                all.addAll(addresses.containing(searchQuery));
+                all.addAll(cities.containing(searchQuery));
+                yield all;
+            }
+        };
+
+        Comparator<Long> byAddress = Comparator.comparing((Long id) -> sortKeys.getOrDefault(id, ""));
+        if (descending) {
+            byAddress = byAddress.reversed();
+        }
+        List<Long> sorted = new ArrayList<>(ids);
+        sorted.sort(byAddress.thenComparing(Comparator.naturalOrder()));
+        return sorted;
+    }
+}
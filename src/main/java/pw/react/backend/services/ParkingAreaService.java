@@ -4,9 +4,11 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import pw.react.backend.dto.NearestParkingAreaDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
 import pw.react.backend.models.ParkingArea;
 
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -14,6 +16,8 @@ public interface ParkingAreaService {
     Page<ParkingArea> getParkingAreas(int page, int size, String sortDirection,
                                       String searchQuery, String searchQueryParameter);
     Optional<ParkingArea> getParkingArea(Long id);
+    long countFreeSpots(Long parkingAreaId);
+    List<NearestParkingAreaDTO> getParkingAreasNear(double latitude, double longitude, double radiusKm, int limit);
     ParkingArea createParkingArea(ParkingArea parkingArea) throws ModelAlreadyExistsException;
     Optional<ParkingArea> updateParkingArea(Long id, ParkingArea parkingArea);
     Boolean deleteParkingArea(Long id);
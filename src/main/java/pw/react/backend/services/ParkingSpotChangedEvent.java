@@ -0,0 +1,4 @@
+package pw.react.backend.services;
+
+/// Published whenever a parking spot of the given area is created, updated, flipped or deleted.
+public record ParkingSpotChangedEvent(Long parkingAreaId) { }
@@ -1,51 +1,113 @@
 package pw.react.backend.services;
 
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import pw.react.backend.dao.ParkingAreaRepository;
 import pw.react.backend.dao.ParkingSpotRepository;
 import pw.react.backend.dao.ReservationRepository;
+import pw.react.backend.dto.BulkParkingSpotsResultDTO;
 import pw.react.backend.dto.CreateParkingSpotDTO;
+import pw.react.backend.dto.CreateParkingSpotsBulkDTO;
+import pw.react.backend.dto.NearestParkingAreaDTO;
+import pw.react.backend.dto.ReturnParkingSpotDTO;
+import pw.react.backend.dto.SeekPageDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
 import pw.react.backend.exceptions.ModelValidationException;
 import pw.react.backend.models.ParkingArea;
 import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.specifications.ParkingSpotSortKey;
+import pw.react.backend.specifications.ParkingSpotSpecification;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
 @Service
 @Qualifier("parkingSpotService")
 public class ParkingSpotMainService implements ParkingSpotService {
 
+    private static final int MAX_NEAREST_LIMIT = 100;
+    private static final int MAX_SEEK_SIZE = 100;
+    private static final int MAX_BULK_SPOTS = 5000;
+    private static final int INSERT_BATCH_SIZE = 500;
+    private static final Pattern SPOT_RANGE = Pattern.compile("^(\\D*)(\\d+)\\.\\.(\\D*)(\\d+)$");
+
     private final ParkingSpotRepository parkingSpotRepository;
     private final ParkingAreaRepository parkingAreaRepository;
     private final ReservationRepository reservationRepository;
+    private final ParkingAreaGeoIndex parkingAreaGeoIndex;
+    private final FreeSpotCounter freeSpotCounter;
+    private final AvailableSpotsCache availableSpotsCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final JdbcTemplate jdbcTemplate;
 
     public ParkingSpotMainService(ParkingSpotRepository parkingSpotRepository,
                                   ParkingAreaRepository parkingAreaRepository,
-                                  ReservationRepository reservationRepository) {
+                                  ReservationRepository reservationRepository,
+                                  ParkingAreaGeoIndex parkingAreaGeoIndex,
+                                  FreeSpotCounter freeSpotCounter,
+                                  AvailableSpotsCache availableSpotsCache,
+                                  ApplicationEventPublisher eventPublisher,
+                                  JdbcTemplate jdbcTemplate) {
         this.parkingSpotRepository = parkingSpotRepository;
         this.parkingAreaRepository = parkingAreaRepository;
         this.reservationRepository = reservationRepository;
+        this.parkingAreaGeoIndex = parkingAreaGeoIndex;
+        this.freeSpotCounter = freeSpotCounter;
+        this.availableSpotsCache = availableSpotsCache;
+        this.eventPublisher = eventPublisher;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
-    public Page<ParkingSpot> getParkingSpots(Pageable pageable) {
-        return parkingSpotRepository.findAll(pageable);
+    public Page<ParkingSpot> getParkingSpots(int page, int size, String sortBy, String sortDirection) {
+        ParkingSpotSortKey sortKey = ParkingSpotSortKey.fromParam(sortBy);
+        return parkingSpotRepository.findAll(PageRequest.of(page, size, sortKey.sort(direction(sortDirection))));
     }
 
     @Override
-    public Optional<ParkingSpot> getParkingSpot(Long id) {
-        if (parkingSpotRepository.findById(id).isPresent()) {
-            return parkingSpotRepository.findById(id);
+    public SeekPageDTO<ReturnParkingSpotDTO> getParkingSpotsAfter(String cursor, int size, String sortBy, String sortDirection) {
+        if (size < 1 || size > MAX_SEEK_SIZE) {
+            throw new ModelValidationException("Size must be between 1 and " + MAX_SEEK_SIZE);
         }
-        return Optional.empty();
+        ParkingSpotSortKey sortKey = ParkingSpotSortKey.fromParam(sortBy);
+        Sort.Direction direction = direction(sortDirection);
+        Object[] after = cursor == null || cursor.isEmpty() ? null : sortKey.parseCursor(cursor);
+
+        // one extra row tells whether another page exists
+        List<ParkingSpot> rows = parkingSpotRepository.findBy(ParkingSpotSpecification.after(sortKey, direction, after),
+                q -> q.sortBy(sortKey.sort(direction)).limit(size + 1).all());
+        boolean hasNext = rows.size() > size;
+        List<ParkingSpot> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? sortKey.cursorOf(content.get(content.size() - 1)) : null;
+        return new SeekPageDTO<>(content.stream().map(ReturnParkingSpotDTO::fromModel).toList(), content.size(), nextCursor);
+    }
+
+    private static Sort.Direction direction(String sortDirection) {
+        return "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
     }
 
     @Override
+    public Optional<ParkingSpot> getParkingSpot(Long id) {
+        return parkingSpotRepository.findById(id);
+    }
+
+    @Override
+    @Transactional
     public ParkingSpot createParkingSpot(CreateParkingSpotDTO parkingSpotDTO) throws ModelAlreadyExistsException, ModelValidationException {
         Optional<ParkingArea> parkingArea = parkingAreaRepository.findById(parkingSpotDTO.parkingAreaId());
         if (parkingArea.isEmpty())
@@ -56,39 +118,184 @@ public class ParkingSpotMainService implements ParkingSpotService {
         if (parkingSpotRepository.existsByParkingAreaAndSpotNumber(pa, parkingSpotDTO.spotNumber())) {
             throw new ModelAlreadyExistsException("A parking spot with the specified spot number already exists");
         }
-        return parkingSpotRepository.save(parkingSpotDTO.toModel(pa));
+        ParkingSpot saved = parkingSpotRepository.save(parkingSpotDTO.toModel(pa));
+        if (saved.getIsAvailable()) {
+            freeSpotCounter.adjust(pa.getId(), 1);
+        }
+        eventPublisher.publishEvent(new ParkingSpotChangedEvent(pa.getId()));
+        return saved;
     }
 
     @Override
+    @Transactional
+    public BulkParkingSpotsResultDTO createParkingSpots(Long parkingAreaId, CreateParkingSpotsBulkDTO bulkDTO) {
+        if (!parkingAreaRepository.existsById(parkingAreaId)) {
+            throw new ModelValidationException("Parking area with id " + parkingAreaId + " not found");
+        }
+        List<String> spotNumbers = resolveSpotNumbers(bulkDTO);
+
+        Set<String> existing = parkingSpotRepository.findSpotNumbersByParkingAreaId(parkingAreaId);
+        List<String> taken = spotNumbers.stream().filter(existing::contains).limit(10).toList();
+        if (!taken.isEmpty()) {
+            throw new ModelAlreadyExistsException("Parking spots already exist in this area: " + String.join(", ", taken));
+        }
+
+        try {
+            jdbcTemplate.batchUpdate("insert into parking_spot (spot_number, parking_area_id, is_available) values (?, ?, ?)",
+                    spotNumbers, INSERT_BATCH_SIZE, (ps, spotNumber) -> {
+                        ps.setString(1, spotNumber);
+                        ps.setLong(2, parkingAreaId);
+                        ps.setBoolean(3, bulkDTO.isAvailable());
+                    });
+        } catch (DuplicateKeyException e) {
+            throw new ModelAlreadyExistsException("Parking spots were added to this area concurrently, nothing was created");
+        }
+
+        if (bulkDTO.isAvailable()) {
+            freeSpotCounter.adjust(parkingAreaId, spotNumbers.size());
+        }
+        eventPublisher.publishEvent(new ParkingSpotChangedEvent(parkingAreaId));
+        return new BulkParkingSpotsResultDTO(parkingAreaId, spotNumbers.size());
+    }
+
+    private static List<String> resolveSpotNumbers(CreateParkingSpotsBulkDTO bulkDTO) {
+        boolean hasPattern = bulkDTO.pattern() != null && !bulkDTO.pattern().isBlank();
+        boolean hasList = bulkDTO.spotNumbers() != null && !bulkDTO.spotNumbers().isEmpty();
+        if (hasPattern == hasList) {
+            throw new ModelValidationException("Provide either a pattern or a list of spot numbers");
+        }
+
+        List<String> spotNumbers;
+        if (hasPattern) {
+            Matcher m = SPOT_RANGE.matcher(bulkDTO.pattern().trim());
+            if (!m.matches() || !m.group(1).equals(m.group(3))) {
+                throw new ModelValidationException("Pattern must look like A1..A500");
+            }
+            String prefix = m.group(1);
+            String first = m.group(2);
+            long from = Long.parseLong(first);
+            long to = Long.parseLong(m.group(4));
+            if (from > to || to - from + 1 > MAX_BULK_SPOTS) {
+                throw new ModelValidationException("Pattern must describe between 1 and " + MAX_BULK_SPOTS + " spots");
+            }
+            // "A001..A120" keeps the zero padding of the first number
+            String format = first.startsWith("0") && first.length() > 1 ? "%s%0" + first.length() + "d" : "%s%d";
+            spotNumbers = new ArrayList<>((int) (to - from + 1));
+            for (long n = from; n <= to; n++) {
+                spotNumbers.add(String.format(format, prefix, n));
+            }
+        } else {
+            spotNumbers = bulkDTO.spotNumbers();
+            if (spotNumbers.size() > MAX_BULK_SPOTS) {
+                throw new ModelValidationException("At most " + MAX_BULK_SPOTS + " spots can be created at once");
+            }
+            if (spotNumbers.stream().anyMatch(n -> n == null || n.isBlank())) {
+                throw new ModelValidationException("Spot numbers must not be empty");
+            }
+            if (new HashSet<>(spotNumbers).size() != spotNumbers.size()) {
+                throw new ModelValidationException("Spot numbers must be unique");
+            }
+        }
+        return spotNumbers;
+    }
+
+    @Override
+    @Transactional
     public Optional<ParkingSpot> updateParkingSpot(Long id, ParkingSpot parkingSpot) {
-        if (parkingSpotRepository.findById(id).isPresent()) {
+        Optional<ParkingSpot> existing = parkingSpotRepository.findById(id);
+        if (existing.isPresent()) {
+            boolean wasAvailable = existing.get().getIsAvailable();
+            Long previousAreaId = existing.get().getParkingArea().getId();
+
             ParkingSpot ps = new ParkingSpot();
             ps.setId(id);
             ps.setIsAvailable(parkingSpot.getIsAvailable());
             ps.setSpotNumber(parkingSpot.getSpotNumber());
             ps.setParkingArea(parkingSpot.getParkingArea());
             ps = parkingSpotRepository.save(ps);
+
+            if (wasAvailable) {
+                freeSpotCounter.adjust(previousAreaId, -1);
+            }
+            if (ps.getIsAvailable()) {
+                freeSpotCounter.adjust(ps.getParkingArea().getId(), 1);
+            }
+            eventPublisher.publishEvent(new ParkingSpotChangedEvent(previousAreaId));
+            if (!previousAreaId.equals(ps.getParkingArea().getId())) {
+                eventPublisher.publishEvent(new ParkingSpotChangedEvent(ps.getParkingArea().getId()));
+            }
             return Optional.of(ps);
         }
         return Optional.empty();
     }
 
     @Override
+    @Transactional
+    public Optional<ParkingSpot> updateParkingSpotAvailability(Long id, boolean isAvailable) {
+        Optional<ParkingSpot> existing = parkingSpotRepository.findById(id);
+        if (existing.isEmpty()) {
+            return Optional.empty();
+        }
+        ParkingSpot ps = existing.get();
+        if (ps.getIsAvailable() != isAvailable) {
+            ps.setIsAvailable(isAvailable);
+            ps = parkingSpotRepository.save(ps);
+            freeSpotCounter.adjust(ps.getParkingArea().getId(), isAvailable ? 1 : -1);
+            eventPublisher.publishEvent(new ParkingSpotChangedEvent(ps.getParkingArea().getId()));
+        }
+        return Optional.of(ps);
+    }
+
+    @Override
+    @Transactional
     public Boolean deleteParkingSpot(Long id) {
         ParkingSpot parkingSpot = parkingSpotRepository.findById(id).orElse(null);
         if (parkingSpot != null) {
-            reservationRepository.findByParkingSpot(parkingSpot).ifPresent(reservationRepository::delete);
-            parkingSpotRepository.delete(parkingSpot);
+            reservationRepository.deleteByParkingSpotId(id);
+            parkingSpotRepository.deleteAllByIdInBatch(List.of(id));
+            if (parkingSpot.getIsAvailable()) {
+                freeSpotCounter.adjust(parkingSpot.getParkingArea().getId(), -1);
+            }
+            eventPublisher.publishEvent(new ParkingSpotChangedEvent(parkingSpot.getParkingArea().getId()));
             return true;
         }
         return false;
     }
 
     @Override
-    public List<ParkingSpot> getParkingSpotsByParkingAreaId(Long parkingAreaId) {
-        if (parkingAreaRepository.existsById(parkingAreaId)) {
-            return parkingSpotRepository.findParkingSpotsByParkingAreaIdAndIsAvailableTrue(parkingAreaId);
+    public List<ReturnParkingSpotDTO> getParkingSpotsByParkingAreaId(Long parkingAreaId) {
+        return availableSpotsCache.get(parkingAreaId, () -> {
+            if (!parkingAreaRepository.existsById(parkingAreaId)) {
+                throw new ModelValidationException("Parking area with id " + parkingAreaId + " not found");
+            }
+            return parkingSpotRepository.findParkingSpotsByParkingAreaIdAndIsAvailableTrue(parkingAreaId).stream()
+                    .map(ReturnParkingSpotDTO::fromModel)
+                    .toList();
+        });
+    }
+
+    @Override
+    public List<NearestParkingAreaDTO> getNearestAvailableParkingAreas(double latitude, double longitude, int limit) {
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new ModelValidationException("Latitude must be within [-90, 90] and longitude within [-180, 180]");
+        }
+        if (limit < 1) {
+            throw new ModelValidationException("Limit must be positive");
+        }
+        List<ParkingAreaGeoIndex.Hit> hits = parkingAreaGeoIndex.nearest(latitude, longitude,
+                Math.min(limit, MAX_NEAREST_LIMIT), freeSpotCounter::hasFreeSpots);
+        if (hits.isEmpty()) {
+            return List.of();
         }
-        throw new ModelValidationException("Parking area with id " + parkingAreaId + " not found");
+
+        Map<Long, ParkingArea> areas = parkingAreaRepository.findAllById(hits.stream().map(ParkingAreaGeoIndex.Hit::parkingAreaId).toList())
+                .stream()
+                .collect(Collectors.toMap(ParkingArea::getId, Function.identity()));
+
+        return hits.stream()
+                .filter(hit -> areas.containsKey(hit.parkingAreaId()))
+                .map(hit -> NearestParkingAreaDTO.fromModel(areas.get(hit.parkingAreaId()), hit.distanceKm(),
+                        freeSpotCounter.get(hit.parkingAreaId())))
+                .toList();
     }
 }
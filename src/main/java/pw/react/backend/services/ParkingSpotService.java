@@ -2,9 +2,13 @@ package pw.react.backend.services;
 
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import pw.react.backend.dto.BulkParkingSpotsResultDTO;
 import pw.react.backend.dto.CreateParkingSpotDTO;
+import pw.react.backend.dto.CreateParkingSpotsBulkDTO;
+import pw.react.backend.dto.NearestParkingAreaDTO;
+import pw.react.backend.dto.ReturnParkingSpotDTO;
+import pw.react.backend.dto.SeekPageDTO;
 import pw.react.backend.models.ParkingSpot;
 
 import java.util.List;
@@ -12,10 +16,14 @@ import java.util.Optional;
 
 @Service
 public interface ParkingSpotService {
-    Page<ParkingSpot> getParkingSpots(Pageable pageable);
+    Page<ParkingSpot> getParkingSpots(int page, int size, String sortBy, String sortDirection);
+    SeekPageDTO<ReturnParkingSpotDTO> getParkingSpotsAfter(String cursor, int size, String sortBy, String sortDirection);
     Optional<ParkingSpot> getParkingSpot(Long id);
     ParkingSpot createParkingSpot(CreateParkingSpotDTO parkingSpotDTO);
+    BulkParkingSpotsResultDTO createParkingSpots(Long parkingAreaId, CreateParkingSpotsBulkDTO bulkDTO);
     Optional<ParkingSpot> updateParkingSpot(Long id, ParkingSpot parkingSpot);
+    Optional<ParkingSpot> updateParkingSpotAvailability(Long id, boolean isAvailable);
     Boolean deleteParkingSpot(Long id);
-    List<ParkingSpot> getParkingSpotsByParkingAreaId(Long parkingAreaId);
+    List<ReturnParkingSpotDTO> getParkingSpotsByParkingAreaId(Long parkingAreaId);
+    List<NearestParkingAreaDTO> getNearestAvailableParkingAreas(double latitude, double longitude, int limit);
 }
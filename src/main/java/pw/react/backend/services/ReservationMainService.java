@@ -1,12 +1,19 @@
 package pw.react.backend.services;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
 import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pw.react.backend.dao.ReservationRepository;
 import pw.react.backend.dto.CreateReservationDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
@@ -16,22 +23,58 @@ import pw.react.backend.models.ParkingSpot;
 import pw.react.backend.models.Reservation;
 import pw.react.backend.models.User;
 
+import javax.sql.DataSource;
+import java.io.*;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
 public class ReservationMainService implements ReservationService {
 
+    private static final String EXPORT_SQL = "select r.id, r.parking_spot_id, ps.spot_number, ps.parking_area_id, pa.name as parking_area_name, " +
+            "r.user_id, u.username, r.start_time, r.end_time, r.total_cost, r.created_at " +
+            "from reservation r " +
+            "join parking_spot ps on ps.id = r.parking_spot_id " +
+            "join parking_area pa on pa.id = ps.parking_area_id " +
+            "join `user` u on u.id = r.user_id";
+    private static final String[] EXPORT_COLUMNS = {"id", "parkingSpotId", "spotNumber", "parkingAreaId", "parkingAreaName",
+            "userId", "username", "startTime", "endTime", "totalCost", "createdAt"};
+    private static final int EXPORT_FETCH_SIZE = 1000;
+    private static final JsonFactory JSON_FACTORY = new JsonFactory().disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     final private ReservationRepository reservationRepository;
     private final UserService userService;
     private final ParkingSpotService parkingSpotService;
+    private final JdbcTemplate streamingJdbcTemplate;
 
-    public ReservationMainService(ReservationRepository reservationRepository, UserService userService, ParkingSpotService parkingSpotService) {
+    public ReservationMainService(ReservationRepository reservationRepository, UserService userService, ParkingSpotService parkingSpotService,
+                                  DataSource dataSource) {
         this.reservationRepository = reservationRepository;
         this.userService = userService;
         this.parkingSpotService = parkingSpotService;
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(exportFetchSize(dataSource));
+    }
+
+    /// Integer.MIN_VALUE makes MySQL Connector/J stream rows one by one instead of buffering the result set.
+    /// Other drivers reject a negative fetch size, so they get an ordinary hint; whether they stream with it
+    /// is up to the driver (H2 buffers the result).
+    private static int exportFetchSize(DataSource dataSource) {
+        try {
+            String driver = JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDriverName);
+            return driver != null && driver.startsWith("MySQL Connector") ? Integer.MIN_VALUE : EXPORT_FETCH_SIZE;
+        } catch (MetaDataAccessException e) {
+            return EXPORT_FETCH_SIZE;
+        }
     }
 
     private BigDecimal validPrice(Reservation reservation) {
@@ -83,9 +126,7 @@ public class ReservationMainService implements ReservationService {
         reservation.setEndTime(reservationDTO.endTime());
         reservation.setTotalCost(validPrice(reservation));
         reservation.setCreatedAt(LocalDateTime.now());
-        ParkingSpot ps = parkingSpot.get();
-        ps.setIsAvailable(false);
-        parkingSpotService.updateParkingSpot(ps.getId(), ps);
+        parkingSpotService.updateParkingSpotAvailability(parkingSpot.get().getId(), false);
         return reservationRepository.save(reservation);
     }
 
@@ -115,14 +156,10 @@ public class ReservationMainService implements ReservationService {
 
     @Override
     public void delete(Long id) throws ModelNotFoundException {
-        if (!reservationRepository.existsById(id)) {
-            throw new ModelValidationException("Reservation not found");
-        }
-        Reservation reservation = reservationRepository.findById(id).get();
-        ParkingSpot ps = reservation.getParkingSpot();
-        ps.setIsAvailable(true);
-        parkingSpotService.updateParkingSpot(ps.getId(), ps);
-        reservationRepository.deleteById(id);
+        Reservation reservation = reservationRepository.findById(id)
+                .orElseThrow(() -> new ModelValidationException("Reservation not found"));
+        parkingSpotService.updateParkingSpotAvailability(reservation.getParkingSpot().getId(), true);
+        reservationRepository.delete(reservation);
     }
 
     @Override
@@ -146,4 +183,121 @@ public class ReservationMainService implements ReservationService {
         }
         return reservationRepository.findByParkingSpot(ps_opt.get());
     }
+
+    @Override
+    public StreamingResponseBody exportReservations(LocalDateTime from, LocalDateTime to, Long parkingAreaId, String format) {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        if (!csv && !"ndjson".equalsIgnoreCase(format)) {
+            throw new ModelValidationException("Format must be csv or ndjson");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ModelValidationException("'from' must be before 'to'");
+        }
+
+        StringBuilder sql = new StringBuilder(EXPORT_SQL).append(" where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" and r.start_time >= ?");
+            args.add(from);
+        }
+        if (to != null) {
+            sql.append(" and r.start_time < ?");
+            args.add(to);
+        }
+        if (parkingAreaId != null) {
+            sql.append(" and ps.parking_area_id = ?");
+            args.add(parkingAreaId);
+        }
+        sql.append(" order by r.id");
+
+        return out -> {
+            if (csv) {
+                exportCsv(sql.toString(), args.toArray(), out);
+            } else {
+                exportNdjson(sql.toString(), args.toArray(), out);
+            }
+        };
+    }
+
+    private void exportNdjson(String sql, Object[] args, OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.setRootValueSeparator(new SerializedString("\n"));
+            streamingJdbcTemplate.query(sql, rs -> {
+                try {
+                    json.writeStartObject();
+                    json.writeNumberField("id", rs.getLong("id"));
+                    json.writeNumberField("parkingSpotId", rs.getLong("parking_spot_id"));
+                    json.writeStringField("spotNumber", rs.getString("spot_number"));
+                    json.writeNumberField("parkingAreaId", rs.getLong("parking_area_id"));
+                    json.writeStringField("parkingAreaName", rs.getString("parking_area_name"));
+                    json.writeNumberField("userId", rs.getLong("user_id"));
+                    json.writeStringField("username", rs.getString("username"));
+                    json.writeStringField("startTime", isoDateTime(rs, "start_time"));
+                    json.writeStringField("endTime", isoDateTime(rs, "end_time"));
+                    BigDecimal totalCost = rs.getBigDecimal("total_cost");
+                    if (totalCost == null) {
+                        json.writeNullField("totalCost");
+                    } else {
+                        json.writeNumberField("totalCost", totalCost);
+                    }
+                    json.writeStringField("createdAt", isoDateTime(rs, "created_at"));
+                    json.writeEndObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args);
+            json.writeRaw('\n');
+        }
+    }
+
+    private void exportCsv(String sql, Object[] args, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", EXPORT_COLUMNS));
+        writer.write("\r\n");
+        streamingJdbcTemplate.query(sql, rs -> {
+            try {
+                writer.write(Long.toString(rs.getLong("id")));
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong("parking_spot_id")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("spot_number")));
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong("parking_area_id")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("parking_area_name")));
+                writer.write(',');
+                writer.write(Long.toString(rs.getLong("user_id")));
+                writer.write(',');
+                writer.write(csvField(rs.getString("username")));
+                writer.write(',');
+                writer.write(isoDateTime(rs, "start_time"));
+                writer.write(',');
+                writer.write(isoDateTime(rs, "end_time"));
+                writer.write(',');
+                BigDecimal totalCost = rs.getBigDecimal("total_cost");
+                writer.write(totalCost == null ? "" : totalCost.toPlainString());
+                writer.write(',');
+                writer.write(isoDateTime(rs, "created_at"));
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }, args);
+        writer.flush();
+    }
+
+    private static String isoDateTime(ResultSet rs, String column) throws SQLException {
+        LocalDateTime value = rs.getObject(column, LocalDateTime.class);
+        return value == null ? "" : value.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
 }
@@ -3,9 +3,11 @@ package pw.react.backend.services;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import pw.react.backend.dto.CreateReservationDTO;
 import pw.react.backend.models.Reservation;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -17,4 +19,5 @@ public interface ReservationService {
     void delete(Long id);
     Page<Reservation> findByUserId(int page, int size, String sortDirection, Long userId);
     Optional<Reservation> findByParkingSpotId(Long psId);
+    StreamingResponseBody exportReservations(LocalDateTime from, LocalDateTime to, Long parkingAreaId, String format);
 }
@@ -0,0 +1,87 @@
+package pw.react.backend.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.security.SecureRandom;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/// In-memory change counters behind the ETags of GET endpoints, so a matching `If-None-Match` is
+/// answered with 304 before any query or serialization. Bumped after the change is committed; a
+/// controller reads the tag before loading the data, so a racing change can only make the tag older
+/// than the body, never newer. Tags carry a per-start instance id, so they never match across restarts.
+///
+/// Assumes a single application instance: the counters only see writes made by this JVM, so behind a
+/// load balancer another instance would keep answering 304 for data changed here. Deployments running
+/// more than one instance set `parkly.conditional-get.enabled=false`; the tags are then null and the
+/// endpoints send neither ETags nor 304s.
+@Component
+public class ResourceVersions {
+
+    private final boolean enabled;
+    private final String instance = Long.toString(new SecureRandom().nextLong() >>> 1, 36);
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Long, Long> parkingAreas = new ConcurrentHashMap<>();
+    private final Map<Long, Long> parkingSpotsByArea = new ConcurrentHashMap<>();
+    private final Map<Long, Long> users = new ConcurrentHashMap<>();
+
+    public ResourceVersions(@Value("${parkly.conditional-get.enabled:true}") boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /// The free spot count is part of the representation and moves on every reservation, so it is part of the tag.
+    public String parkingAreaETag(Long parkingAreaId, long freeSpots) {
+        return tag("pa", parkingAreas.getOrDefault(parkingAreaId, 0L) + "." + freeSpots);
+    }
+
+    public String parkingSpotsETag(Long parkingAreaId) {
+        return tag("ps", String.valueOf(parkingSpotsByArea.getOrDefault(parkingAreaId, 0L)));
+    }
+
+    public String userETag(Long userId) {
+        return tag("u", String.valueOf(users.getOrDefault(userId, 0L)));
+    }
+
+    /// Applied after commit when called inside a transaction, immediately otherwise.
+    public void parkingAreaChanged(Long parkingAreaId) {
+        afterCommit(() -> bump(parkingAreas, parkingAreaId));
+    }
+
+    public void userChanged(Long userId) {
+        afterCommit(() -> bump(users, userId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onParkingSpotChanged(ParkingSpotChangedEvent event) {
+        bump(parkingSpotsByArea, event.parkingAreaId());
+    }
+
+    /// Deleted ids keep their entry: dropping it would bring back version 0 and revalidate old tags.
+    private void bump(Map<Long, Long> versions, Long id) {
+        if (id != null) {
+            versions.put(id, sequence.incrementAndGet());
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private String tag(String kind, String version) {
+        return enabled ? "\"" + kind + "-" + instance + "-" + version + "\"" : null;
+    }
+}
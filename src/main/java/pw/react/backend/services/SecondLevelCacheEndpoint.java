@@ -0,0 +1,42 @@
+package pw.react.backend.services;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/// Per-region hit ratio of the Hibernate second-level cache, exposed at /actuator/l2cache.
+@Component
+@Endpoint(id = "l2cache")
+public class SecondLevelCacheEndpoint {
+
+    public record RegionStatistics(long hits, long misses, long puts, long elementsInMemory, double hitRatio) { }
+
+    private final Statistics statistics;
+
+    public SecondLevelCacheEndpoint(EntityManagerFactory entityManagerFactory) {
+        this.statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @ReadOperation
+    public Map<String, RegionStatistics> regions() {
+        Map<String, RegionStatistics> regions = new TreeMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            long hits = region.getHitCount();
+            long misses = region.getMissCount();
+            regions.put(regionName, new RegionStatistics(hits, misses, region.getPutCount(),
+                    region.getElementCountInMemory(), hits + misses == 0 ? 0 : (double) hits / (hits + misses)));
+        }
+        return regions;
+    }
+}
@@ -0,0 +1,154 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.User;
+import pw.react.backend.utils.UserRole;
+import pw.react.backend.web.SessionPrincipal;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/// Issues and verifies HMAC-SHA256 signed session tokens carrying user id and role.
+/// Format: base64url("userId.role.issuedAtEpochMilli.expiresAtEpochSecond.tokenId") + "." + base64url(signature).
+/// A token verifies only while its user still exists, still has the role in the token, and the token was issued
+/// after the user's persisted `tokensNotBefore`. The user is read through the second-level cache, so this
+/// normally costs no query, and role changes, password changes and deletions survive a restart.
+///
+/// Limits: single tokens revoked at logout are kept in memory only, until they would have expired anyway.
+/// After a restart with the same `parkly.auth.token-secret`, or on another instance, a logged-out token is
+/// accepted again until it expires. Another instance also keeps accepting a token revoked through the user row
+/// until its own cached copy of the user expires (at most an hour, see application.conf).
+@Component
+public class SessionTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(SessionTokenService.class);
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final UserRepository userRepository;
+    private final Duration ttl;
+    private final String configuredSecret;
+    private final Map<String, Long> revokedTokenIds = new ConcurrentHashMap<>();
+    private SecretKeySpec key;
+    private ThreadLocal<Mac> macs;
+
+    public record IssuedToken(String token, Instant expiresAt) { }
+
+    public SessionTokenService(UserRepository userRepository,
+                               @Value("${parkly.auth.token-secret:}") String secret,
+                               @Value("${parkly.auth.token-ttl:PT12H}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.configuredSecret = secret;
+        this.ttl = ttl;
+    }
+
+    @PostConstruct
+    protected void init() {
+        byte[] secret;
+        if (configuredSecret == null || configuredSecret.isBlank()) {
+            secret = new byte[32];
+            random.nextBytes(secret);
+            log.warn("parkly.auth.token-secret is not set, using a random key: tokens will not survive a restart");
+        } else {
+            secret = configuredSecret.getBytes(StandardCharsets.UTF_8);
+        }
+        key = new SecretKeySpec(secret, ALGORITHM);
+        macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    public IssuedToken issue(User user) {
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plus(ttl);
+        byte[] tokenId = new byte[12];
+        random.nextBytes(tokenId);
+        String payload = user.getId() + "." + user.getRole().name() + "." + issuedAt.toEpochMilli() + "."
+                + expiresAt.getEpochSecond() + "." + ENCODER.encodeToString(tokenId);
+        String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+        return new IssuedToken(encodedPayload + "." + ENCODER.encodeToString(sign(encodedPayload)), expiresAt);
+    }
+
+    /// Empty for malformed, forged, expired or revoked tokens, and for tokens of deleted users or of another role.
+    public Optional<SessionPrincipal> verify(String token) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        String encodedPayload = token.substring(0, dot);
+        try {
+            if (!MessageDigest.isEqual(sign(encodedPayload), DECODER.decode(token.substring(dot + 1)))) {
+                return Optional.empty();
+            }
+            String[] parts = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8).split("\\.");
+            if (parts.length != 5) {
+                return Optional.empty();
+            }
+            long userId = Long.parseLong(parts[0]);
+            UserRole role = UserRole.valueOf(parts[1]);
+            long issuedAt = Long.parseLong(parts[2]);
+            long expiresAt = Long.parseLong(parts[3]);
+            String tokenId = parts[4];
+
+            if (expiresAt <= Instant.now().getEpochSecond() || revokedTokenIds.containsKey(tokenId)) {
+                return Optional.empty();
+            }
+            Optional<User> user = userRepository.findById(userId);
+            if (user.isEmpty() || user.get().getRole() != role) {
+                return Optional.empty();
+            }
+            Long notBefore = user.get().getTokensNotBefore();
+            if (notBefore != null && issuedAt <= notBefore) {
+                return Optional.empty();
+            }
+            return Optional.of(new SessionPrincipal(userId, role, tokenId, Instant.ofEpochSecond(expiresAt)));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    public void revoke(SessionPrincipal principal) {
+        revokedTokenIds.put(principal.tokenId(), principal.expiresAt().getEpochSecond());
+    }
+
+    /// Invalidates every token issued to the user so far, e.g. after a password change. Takes effect once
+    /// the caller saves the user.
+    public void revokeUser(User user) {
+        user.setTokensNotBefore(Instant.now().toEpochMilli());
+    }
+
+    @Scheduled(fixedDelay = 10, timeUnit = TimeUnit.MINUTES)
+    protected void evictExpired() {
+        Instant now = Instant.now();
+        revokedTokenIds.values().removeIf(expiresAt -> expiresAt <= now.getEpochSecond());
+    }
+
+    private byte[] sign(String encodedPayload) {
+        return macs.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -0,0 +1,63 @@
+package pw.react.backend.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import pw.react.backend.dto.CarsDTO;
+import pw.react.backend.web.RequestTimings;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/// Times every Carly call as `parkly.carly`, tagged with endpoint and outcome
+/// (success, client_error, server_error, or unavailable when Carly could not be reached),
+/// and adds the time to the current request's Server-Timing breakdown.
+class TimedCarlyClient implements CarlyClient {
+
+    private final CarlyClient delegate;
+    private final MeterRegistry meterRegistry;
+
+    TimedCarlyClient(CarlyClient delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Optional<CarsDTO> getCars() {
+        return time("getCars", delegate::getCars, cars -> cars.isPresent() ? "success" : "unavailable");
+    }
+
+    @Override
+    public int createUser(String email) {
+        return time("createUser", () -> delegate.createUser(email), TimedCarlyClient::outcome);
+    }
+
+    @Override
+    public int createReservation(String carId, LocalDateTime startDate, LocalDateTime endDate, String email) {
+        return time("createReservation", () -> delegate.createReservation(carId, startDate, endDate, email), TimedCarlyClient::outcome);
+    }
+
+    private <T> T time(String endpoint, Supplier<T> call, Function<T, String> outcome) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        T result = call.get();
+        long nanos = sample.stop(Timer.builder("parkly.carly")
+                .description("Carly call latency, retries included")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome.apply(result))
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+        RequestTimings timings = RequestTimings.current();
+        if (timings != null) {
+            timings.addCarlyCall(nanos);
+        }
+        return result;
+    }
+
+    private static String outcome(int status) {
+        if (status >= 200 && status < 300) {
+            return "success";
+        }
+        return status >= 400 && status < 500 ? "client_error" : "server_error";
+    }
+}
@@ -0,0 +1,164 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.utils.BloomFilter;
+import pw.react.backend.utils.TrigramIndex;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/// Bloom filters over usernames and parking area names, so lookups of names that certainly do not exist
+/// skip the database. The unique indexes stay the source of truth: a "maybe" always goes to the database,
+/// and a name written elsewhere (another instance, a direct SQL change) is picked up by the periodic rebuild.
+/// Names are keyed lower-cased and accent-folded, at least as loose as the case- and accent-insensitive
+/// column collation, so the filter never reports a name missing that the database would match.
+@Component
+public class UniqueNameFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueNameFilter.class);
+    private static final long MIN_CAPACITY = 10_000;
+
+    public record Statistics(long probes, long skippedQueries, long falsePositives,
+                             double observedFalsePositiveRate, double expectedFalsePositiveRate, long capacity) { }
+
+    public final class Domain {
+        private final String name;
+        private final Supplier<Collection<String>> loader;
+        private final LongAdder probes = new LongAdder();
+        private final LongAdder negatives = new LongAdder();
+        private final LongAdder falsePositives = new LongAdder();
+        private volatile BloomFilter filter;
+        /// keys added while a rebuild is running, guarded by this
+        private Set<String> staged;
+
+        private Domain(String name, Supplier<Collection<String>> loader) {
+            this.name = name;
+            this.loader = loader;
+        }
+
+        /// False only if `value` is certainly not stored.
+        public boolean mightExist(String value) {
+            if (!enabled || value == null) {
+                return true;
+            }
+            probes.increment();
+            if (filter.mightContain(key(value))) {
+                return true;
+            }
+            negatives.increment();
+            return false;
+        }
+
+        public void add(String value) {
+            if (value == null) {
+                return;
+            }
+            String key = key(value);
+            put(key);
+            // a rebuild that reads the table before this transaction commits must still get the name
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        put(key);
+                    }
+                });
+            }
+        }
+
+        private synchronized void put(String key) {
+            filter.put(key);
+            if (staged != null) {
+                staged.add(key);
+            }
+        }
+
+        /// Called when the database answered "absent" after `mightExist` said maybe.
+        public void recordFalsePositive() {
+            falsePositives.increment();
+        }
+
+        /// Names added from the moment the table is read until the new filter is published are staged,
+        /// so none of them is lost when the old filter is replaced.
+        private void rebuild() {
+            synchronized (this) {
+                staged = new HashSet<>();
+            }
+            Collection<String> values = loader.get();
+            BloomFilter next = new BloomFilter(Math.max(MIN_CAPACITY, 2L * values.size()), falsePositiveRate);
+            values.forEach(value -> next.put(key(value)));
+            synchronized (this) {
+                staged.forEach(next::put);
+                filter = next;
+                staged = null;
+            }
+            log.info("Loaded {} {} into the unique name filter", values.size(), name);
+        }
+
+        public Statistics statistics() {
+            long misses = falsePositives.sum() + negatives.sum();
+            return new Statistics(probes.sum(), negatives.sum(), falsePositives.sum(),
+                    misses == 0 ? 0 : (double) falsePositives.sum() / misses,
+                    filter.expectedFalsePositiveRate(), filter.expectedInsertions());
+        }
+    }
+
+    private final boolean enabled;
+    private final double falsePositiveRate;
+    private final Domain usernames;
+    private final Domain parkingAreaNames;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public UniqueNameFilter(UserRepository userRepository, ParkingAreaRepository parkingAreaRepository,
+                            @Value("${parkly.unique-filter.enabled:true}") boolean enabled,
+                            @Value("${parkly.unique-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.enabled = enabled;
+        this.falsePositiveRate = falsePositiveRate;
+        this.usernames = new Domain("usernames", userRepository::findAllUsernames);
+        this.parkingAreaNames = new Domain("parking area names", parkingAreaRepository::findAllNames);
+    }
+
+    @PostConstruct
+    protected void init() {
+        rebuild();
+    }
+
+    /// Also resizes the filters as the tables grow and sheds names that were deleted or renamed.
+    /// Guarded by a lock rather than `synchronized`: the table reads would pin a virtual thread to its carrier.
+    @Scheduled(initialDelayString = "${parkly.unique-filter.rebuild-interval:PT1H}",
+            fixedDelayString = "${parkly.unique-filter.rebuild-interval:PT1H}")
+    protected void rebuild() {
+        rebuildLock.lock();
+        try {
+            usernames.rebuild();
+            parkingAreaNames.rebuild();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public Domain usernames() {
+        return usernames;
+    }
+
+    public Domain parkingAreaNames() {
+        return parkingAreaNames;
+    }
+
+    private static String key(String value) {
+        return TrigramIndex.normalize(value).strip();
+    }
+}
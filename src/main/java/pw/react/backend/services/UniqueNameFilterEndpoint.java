@@ -0,0 +1,26 @@
+package pw.react.backend.services;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/// Skipped queries and false-positive rates of the unique name Bloom filters, exposed at /actuator/uniquenames.
+@Component
+@Endpoint(id = "uniquenames")
+public class UniqueNameFilterEndpoint {
+
+    private final UniqueNameFilter uniqueNameFilter;
+
+    public UniqueNameFilterEndpoint(UniqueNameFilter uniqueNameFilter) {
+        this.uniqueNameFilter = uniqueNameFilter;
+    }
+
+    @ReadOperation
+    public Map<String, UniqueNameFilter.Statistics> filters() {
+        return Map.of(
+                "usernames", uniqueNameFilter.usernames().statistics(),
+                "parkingAreaNames", uniqueNameFilter.parkingAreaNames().statistics());
+    }
+}
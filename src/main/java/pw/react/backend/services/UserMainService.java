@@ -2,7 +2,10 @@ package pw.react.backend.services;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -15,21 +18,51 @@ import pw.react.backend.dto.LoginDTO;
 import pw.react.backend.exceptions.ModelAlreadyExistsException;
 import pw.react.backend.exceptions.ModelNotFoundException;
 import pw.react.backend.exceptions.ModelValidationException;
+import pw.react.backend.exceptions.UnauthorizedException;
 import pw.react.backend.models.User;
 import pw.react.backend.specifications.UserSpecification;
+import pw.react.backend.utils.PasswordHasher;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 @Service
 public class UserMainService implements UserService {
 
     private static final Logger log = LoggerFactory.getLogger(UserMainService.class);
+    private static final int MAX_FUZZY_RESULTS = 1000;
 
     protected final UserRepository userRepository;
-
-    public UserMainService(UserRepository userRepository) {
+    private final SessionTokenService sessionTokenService;
+    private final UserSearchIndex userSearchIndex;
+    private final UniqueNameFilter uniqueNameFilter;
+    private final ResourceVersions resourceVersions;
+    /// parkly.auth.enforce: every login needs a password, so users without one cannot log in
+    private final boolean passwordRequired;
+
+    public UserMainService(UserRepository userRepository, SessionTokenService sessionTokenService, UserSearchIndex userSearchIndex,
+                           UniqueNameFilter uniqueNameFilter, ResourceVersions resourceVersions,
+                           @Value("${parkly.auth.enforce:false}") boolean passwordRequired) {
         this.userRepository = userRepository;
+        this.sessionTokenService = sessionTokenService;
+        this.userSearchIndex = userSearchIndex;
+        this.uniqueNameFilter = uniqueNameFilter;
+        this.resourceVersions = resourceVersions;
+        this.passwordRequired = passwordRequired;
+    }
+
+    private boolean usernameExists(String username) {
+        UniqueNameFilter.Domain usernames = uniqueNameFilter.usernames();
+        if (!usernames.mightExist(username)) {
+            return false;
+        }
+        if (userRepository.existsByUsername(username)) {
+            return true;
+        }
+        usernames.recordFalsePositive();
+        return false;
     }
 
     private boolean isInvalid(String value) {
@@ -48,6 +81,9 @@ public class UserMainService implements UserService {
         Pageable pageable = PageRequest.of(page, size, sort);
         searchQuery = searchQuery == null ? "" : searchQuery;
         searchQueryParameter = searchQueryParameter == null ? "" : searchQueryParameter;
+        if (searchQueryParameter.equals("fuzzy") && !searchQuery.isBlank()) {
+            return findFuzzy(searchQuery, pageable);
+        }
         Specification<User> specification = switch (searchQueryParameter) {
             case "username" -> UserSpecification.hasUsername(searchQuery);
             case "email" -> UserSpecification.hasEmail(searchQuery);
@@ -60,6 +96,25 @@ public class UserMainService implements UserService {
         return userRepository.findAll(specification, pageable);
     }
 
+    /// Ranked by similarity, so the requested sort direction does not apply.
+    private Page<User> findFuzzy(String searchQuery, Pageable pageable) {
+        List<Long> ids = userSearchIndex.fuzzy(searchQuery, MAX_FUZZY_RESULTS);
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        List<Long> pageIds = ids.subList(from, to);
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.size());
+        }
+
+        Map<Long, User> users = userRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<User> content = pageIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
     @Override
     public Optional<User> findById(Long id) {
         return userRepository.findById(id);
@@ -67,7 +122,10 @@ public class UserMainService implements UserService {
 
     @Override
     public User create(CreateUserDTO userDTO) throws ModelAlreadyExistsException {
-        if (userRepository.existsByUsername(userDTO.username())) {
+        if (passwordRequired && isInvalid(userDTO.password())) {
+            throw new ModelValidationException("Password is required");
+        }
+        if (usernameExists(userDTO.username())) {
             throw new ModelAlreadyExistsException("User with same username already exists");
         }
         User user = new User();
@@ -76,7 +134,19 @@ public class UserMainService implements UserService {
         user.setFirstName(userDTO.firstName());
         user.setLastName(userDTO.username());
         user.setRole(userDTO.role());
-        return userRepository.save(user);
+        if (!isInvalid(userDTO.password())) {
+            user.setPasswordHash(PasswordHasher.hash(userDTO.password()));
+        }
+        User saved;
+        try {
+            saved = userRepository.save(user);
+        } catch (DataIntegrityViolationException e) {
+            // a username the filter had not seen yet, the unique index has the final word
+            throw new ModelAlreadyExistsException("User with same username already exists");
+        }
+        uniqueNameFilter.usernames().add(saved.getUsername());
+        userSearchIndex.put(saved);
+        return saved;
     }
 
     @Override
@@ -86,18 +156,29 @@ public class UserMainService implements UserService {
             throw new ModelValidationException("User with id " + id + " does not exist");
         }
 
-        if (!existingUser.get().getUsername().equals(updatedUser.getUsername()) && userRepository.existsByUsername(updatedUser.getUsername())) {
+        if (!existingUser.get().getUsername().equals(updatedUser.getUsername()) && usernameExists(updatedUser.getUsername())) {
             throw new ModelValidationException("Username already exists");
         }
 
         User user = existingUser.get();
+        boolean passwordChanged = !isInvalid(updatedUser.getPassword());
+        if (user.getRole() != updatedUser.getRole() || passwordChanged) {
+            sessionTokenService.revokeUser(user);
+        }
+        if (passwordChanged) {
+            user.setPasswordHash(PasswordHasher.hash(updatedUser.getPassword()));
+        }
         user.setUsername(updatedUser.getUsername());
         user.setEmail(updatedUser.getEmail());
         user.setFirstName(updatedUser.getFirstName());
         user.setLastName(updatedUser.getLastName());
         user.setRole(updatedUser.getRole());
 
-        return Optional.of(userRepository.save(user));
+        User saved = userRepository.save(user);
+        uniqueNameFilter.usernames().add(saved.getUsername());
+        userSearchIndex.put(saved);
+        resourceVersions.userChanged(id);
+        return Optional.of(saved);
     }
 
     @Override
@@ -106,14 +187,24 @@ public class UserMainService implements UserService {
             throw new ModelNotFoundException("User with id " + id + " does not exist");
         }
         userRepository.deleteById(id);
+        userSearchIndex.remove(id);
+        resourceVersions.userChanged(id);
     }
 
+    /// Goes to the database without asking the unique name filter: a user created on another instance, or
+    /// directly in the database, is not in this instance's filter until its next rebuild.
     @Override
     public User login(LoginDTO loginDTO) {
         Optional<User> user = userRepository.findByUsername(loginDTO.username());
         if (user.isEmpty()) {
             throw new ModelNotFoundException("User with username " + loginDTO.username() + " does not exist");
         }
+        String passwordHash = user.get().getPasswordHash();
+        if (passwordHash != null || passwordRequired) {
+            if (!PasswordHasher.matches(loginDTO.password(), passwordHash)) {
+                throw new UnauthorizedException("Invalid username or password", "/api/users/login");
+            }
+        }
         return user.get();
     }
 }
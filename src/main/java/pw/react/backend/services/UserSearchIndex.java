@@ -0,0 +1,54 @@
+package pw.react.backend.services;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.User;
+import pw.react.backend.utils.TrigramIndex;
+
+import java.util.List;
+
+/// Typo-tolerant search over user full names without touching the database.
+/// Kept in sync by UserMainService on create, update and delete.
+@Component
+public class UserSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSearchIndex.class);
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private final UserRepository userRepository;
+    private final TrigramIndex fullNames = new TrigramIndex();
+
+    public UserSearchIndex(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    @PostConstruct
+    protected void init() {
+        for (Object[] row : userRepository.findAllNames()) {
+            put((Long) row[0], (String) row[1], (String) row[2]);
+        }
+        log.info("Loaded {} users into the search index", fullNames.size());
+    }
+
+    public void put(User user) {
+        put(user.getId(), user.getFirstName(), user.getLastName());
+    }
+
+    public void put(Long id, String firstName, String lastName) {
+        fullNames.put(id, firstName + " " + lastName);
+    }
+
+    public void remove(Long id) {
+        fullNames.remove(id);
+    }
+
+    /// Ids of users whose full name resembles `searchQuery`, most similar first.
+    public List<Long> fuzzy(String searchQuery, int limit) {
+        return fullNames.similar(searchQuery, MIN_SIMILARITY, limit).stream()
+                .map(TrigramIndex.Match::id)
+                .toList();
+    }
+}
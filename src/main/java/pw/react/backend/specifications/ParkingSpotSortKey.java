@@ -0,0 +1,96 @@
+package pw.react.backend.specifications;
+
+import org.springframework.data.domain.Sort;
+import pw.react.backend.exceptions.ModelValidationException;
+import pw.react.backend.models.ParkingSpot;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/// Sort orders accepted by the parking spot listings.
+/// Every key ends with the id, so the order is total and matches an index
+/// (InnoDB appends the primary key to each secondary index):
+/// `spotNumber` -> ix_parking_spot_number, `parkingAreaId` -> ux_parking_spot_area_number,
+/// `isAvailable` -> ix_parking_spot_available.
+public enum ParkingSpotSortKey {
+    ID("id", Column.ID),
+    SPOT_NUMBER("spotNumber", Column.SPOT_NUMBER, Column.ID),
+    PARKING_AREA("parkingAreaId", Column.PARKING_AREA_ID, Column.SPOT_NUMBER, Column.ID),
+    IS_AVAILABLE("isAvailable", Column.IS_AVAILABLE, Column.ID);
+
+    private final String param;
+    private final List<Column> columns;
+
+    ParkingSpotSortKey(String param, Column... columns) {
+        this.param = param;
+        this.columns = List.of(columns);
+    }
+
+    public static ParkingSpotSortKey fromParam(String param) {
+        for (ParkingSpotSortKey key : values()) {
+            if (key.param.equals(param)) {
+                return key;
+            }
+        }
+        throw new ModelValidationException("Cannot sort parking spots by '" + param + "', allowed: "
+                + Arrays.stream(values()).map(k -> k.param).collect(Collectors.joining(", ")));
+    }
+
+    public String param() {
+        return param;
+    }
+
+    List<Column> columns() {
+        return columns;
+    }
+
+    public Sort sort(Sort.Direction direction) {
+        return Sort.by(columns.stream().map(c -> new Sort.Order(direction, c.path)).toList());
+    }
+
+    /// Opaque position right after `parkingSpot`, to be passed back as the next page's cursor.
+    public String cursorOf(ParkingSpot parkingSpot) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return columns.stream()
+                .map(c -> encoder.encodeToString(String.valueOf(c.getter.apply(parkingSpot)).getBytes(StandardCharsets.UTF_8)))
+                .collect(Collectors.joining("."));
+    }
+
+    public Object[] parseCursor(String cursor) {
+        String[] parts = cursor.split("\\.", -1);
+        if (parts.length != columns.size()) {
+            throw new ModelValidationException("Cursor does not belong to sort key '" + param + "'");
+        }
+        Object[] values = new Object[parts.length];
+        try {
+            for (int i = 0; i < parts.length; i++) {
+                String raw = new String(Base64.getUrlDecoder().decode(parts[i]), StandardCharsets.UTF_8);
+                values[i] = columns.get(i).parser.apply(raw);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ModelValidationException("Malformed cursor");
+        }
+        return values;
+    }
+
+    enum Column {
+        ID("id", ParkingSpot::getId, Long::valueOf),
+        SPOT_NUMBER("spotNumber", ParkingSpot::getSpotNumber, s -> s),
+        PARKING_AREA_ID("parkingArea.id", ps -> ps.getParkingArea().getId(), Long::valueOf),
+        IS_AVAILABLE("isAvailable", ParkingSpot::getIsAvailable, Boolean::valueOf);
+
+        final String path;
+        final Function<ParkingSpot, Object> getter;
+        final Function<String, Object> parser;
+
+        Column(String path, Function<ParkingSpot, Object> getter, Function<String, Object> parser) {
+            this.path = path;
+            this.getter = getter;
+            this.parser = parser;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package pw.react.backend.specifications;
+
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import pw.react.backend.models.ParkingSpot;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class ParkingSpotSpecification {
+
+    /// Rows strictly after `values` in the order of `sortKey`, written as
+    /// `c1 >= v1 and (c1 > v1 or (c1 = v1 and c2 > v2) or ...)` so the leading column bounds an index range.
+    public static Specification<ParkingSpot> after(ParkingSpotSortKey sortKey, Sort.Direction direction, Object[] values) {
+        return (root, query, criteriaBuilder) -> {
+            if (values == null) {
+                return criteriaBuilder.conjunction();
+            }
+            List<ParkingSpotSortKey.Column> columns = sortKey.columns();
+            boolean ascending = direction.isAscending();
+
+            List<Predicate> alternatives = new ArrayList<>();
+            List<Predicate> equalPrefix = new ArrayList<>();
+            for (int i = 0; i < columns.size(); i++) {
+                Path<Comparable<Object>> path = path(root, columns.get(i).path);
+                @SuppressWarnings("unchecked")
+                Comparable<Object> value = (Comparable<Object>) values[i];
+
+                List<Predicate> alternative = new ArrayList<>(equalPrefix);
+                alternative.add(ascending ? criteriaBuilder.greaterThan(path, value) : criteriaBuilder.lessThan(path, value));
+                alternatives.add(criteriaBuilder.and(alternative.toArray(Predicate[]::new)));
+                equalPrefix.add(criteriaBuilder.equal(path, value));
+            }
+
+            Path<Comparable<Object>> leading = path(root, columns.get(0).path);
+            @SuppressWarnings("unchecked")
+            Comparable<Object> leadingValue = (Comparable<Object>) values[0];
+            Predicate bound = ascending
+                    ? criteriaBuilder.greaterThanOrEqualTo(leading, leadingValue)
+                    : criteriaBuilder.lessThanOrEqualTo(leading, leadingValue);
+            return criteriaBuilder.and(bound, criteriaBuilder.or(alternatives.toArray(Predicate[]::new)));
+        };
+    }
+
+    private static Path<Comparable<Object>> path(Root<ParkingSpot> root, String dottedPath) {
+        Path<?> path = root;
+        for (String part : dottedPath.split("\\.")) {
+            path = path.get(part);
+        }
+        @SuppressWarnings("unchecked")
+        Path<Comparable<Object>> typed = (Path<Comparable<Object>>) path;
+        return typed;
+    }
+}
@@ -3,10 +3,15 @@ package pw.react.backend.specifications;
 import jakarta.persistence.criteria.Predicate;
 import org.springframework.data.jpa.domain.Specification;
 import pw.react.backend.models.User;
+import pw.react.backend.utils.TrigramIndex;
 
+import java.util.ArrayList;
+import java.util.List;
 
 public class UserSpecification {
 
+    private static final char ESCAPE = '\\';
+
     public static Specification<User> hasUsername(String username) {
         return (root, query, criteriaBuilder) -> {
             if (username == null || username.isEmpty()) {
@@ -25,45 +30,54 @@ public class UserSpecification {
         };
     }
 
+    /// Names are matched by prefix on the normalized search columns, so the lookups stay on an index.
     public static Specification<User> hasFirstName(String firstName) {
         return (root, query, criteriaBuilder) -> {
-            if (firstName == null || firstName.isEmpty()) {
+            if (firstName == null || firstName.isBlank()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), "%" + firstName.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("firstNameSearch"), prefix(firstName.trim()), ESCAPE);
         };
     }
 
     public static Specification<User> hasLastName(String lastName) {
         return (root, query, criteriaBuilder) -> {
-            if (lastName == null || lastName.isEmpty()) {
+            if (lastName == null || lastName.isBlank()) {
                 return criteriaBuilder.conjunction();
             }
-            return criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), "%" + lastName.toLowerCase() + "%");
+            return criteriaBuilder.like(root.get("lastNameSearch"), prefix(lastName.trim()), ESCAPE);
         };
     }
 
+    /// Every token of `fullName` has to start the first or the last name, in any order.
     public static Specification<User> hasFullName(String fullName) {
         return (root, query, criteriaBuilder) -> {
-            if (fullName == null || fullName.isEmpty()) {
+            if (fullName == null || fullName.isBlank()) {
                 return criteriaBuilder.conjunction();
             }
 
-            String[] nameParts = fullName.split("\\s+"); // Split by one or more spaces
-            if (nameParts.length == 1) {
-                // Search in firstName or lastName
-                Predicate firstNamePredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), "%" + fullName.toLowerCase() + "%");
-                Predicate lastNamePredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), "%" + fullName.toLowerCase() + "%");
-                return criteriaBuilder.or(firstNamePredicate, lastNamePredicate);
-            } else {
-                // Search for firstName and lastName separately
-                String firstNamePart = nameParts[0];
-                String lastNamePart = nameParts[nameParts.length -1];
-                Predicate firstNamePredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("firstName")), "%" + firstNamePart.toLowerCase() + "%");
-                Predicate lastNamePredicate = criteriaBuilder.like(criteriaBuilder.lower(root.get("lastName")), "%" + lastNamePart.toLowerCase() + "%");
-                return criteriaBuilder.and(firstNamePredicate, lastNamePredicate);
+            String[] nameParts = fullName.trim().split("\\s+"); // Split by one or more spaces
+            List<Predicate> tokens = new ArrayList<>(nameParts.length);
+            for (String part : nameParts) {
+                String pattern = prefix(part);
+                tokens.add(criteriaBuilder.or(
+                        criteriaBuilder.like(root.get("firstNameSearch"), pattern, ESCAPE),
+                        criteriaBuilder.like(root.get("lastNameSearch"), pattern, ESCAPE)));
             }
-
+            return criteriaBuilder.and(tokens.toArray(Predicate[]::new));
         };
     }
+
+    private static String prefix(String value) {
+        String normalized = TrigramIndex.normalize(value);
+        StringBuilder sb = new StringBuilder(normalized.length() + 1);
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            if (c == ESCAPE || c == '%' || c == '_') {
+                sb.append(ESCAPE);
+            }
+            sb.append(c);
+        }
+        return sb.append('%').toString();
+    }
 }
@@ -0,0 +1,254 @@
+package pw.react.backend.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/// Reads an import file one row at a time, so memory use does not depend on the file size.
+/// Rows come back as column name -> raw value; a malformed row throws IllegalArgumentException
+/// and the reader stays positioned on the next row. Lines and quoted fields are capped at
+/// MAX_LINE_LENGTH characters, so an unterminated quote or a file without line breaks cannot
+/// pull the rest of the file into memory.
+public abstract class ImportRowReader implements Closeable {
+
+    /// Far above any column (all VARCHAR(255)); longer input is malformed.
+    public static final int MAX_LINE_LENGTH = 64 * 1024;
+
+    public enum Format {
+        CSV, NDJSON;
+
+        /// Explicit `format` wins, then the file extension, then the content type; CSV otherwise.
+        public static Format detect(String format, String fileName, String contentType) {
+            if (format != null && !format.isBlank()) {
+                try {
+                    return valueOf(format.trim().toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Unsupported import format '" + format + "', expected csv or ndjson");
+                }
+            }
+            String name = fileName == null ? "" : fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".ndjson") || name.endsWith(".jsonl")
+                    || (contentType != null && contentType.contains("ndjson"))) {
+                return NDJSON;
+            }
+            return CSV;
+        }
+    }
+
+    private final Reader reader;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int end;
+    private boolean skipLineFeed;
+    protected long lineNumber;
+
+    protected ImportRowReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    public static ImportRowReader open(Path file, Format format) throws IOException {
+        BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+        return format == Format.NDJSON ? new NdjsonRowReader(reader) : new CsvRowReader(reader);
+    }
+
+    /// Next row, or null at the end of the file.
+    public abstract Map<String, String> next() throws IOException;
+
+    /// Line on which the last returned row started.
+    public abstract long lineNumber();
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /// Like BufferedReader.readLine, but counts lines and throws for a line longer than MAX_LINE_LENGTH
+    /// once it has skipped the rest of it.
+    protected String readLine() throws IOException {
+        StringBuilder line = null;
+        boolean tooLong = false;
+        while (true) {
+            if (position == end) {
+                int read = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                end = Math.max(read, 0);
+                if (read <= 0) {
+                    return line == null ? null : completeLine(line, tooLong);
+                }
+            }
+            if (skipLineFeed) {
+                skipLineFeed = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            int start = position;
+            while (position < end && buffer[position] != '\n' && buffer[position] != '\r') {
+                position++;
+            }
+            if (line == null) {
+                line = new StringBuilder();
+            }
+            if (!tooLong && line.length() + (position - start) > MAX_LINE_LENGTH) {
+                tooLong = true;
+                line.setLength(0);
+            }
+            if (!tooLong) {
+                line.append(buffer, start, position - start);
+            }
+            if (position < end) {
+                skipLineFeed = buffer[position++] == '\r';
+                return completeLine(line, tooLong);
+            }
+        }
+    }
+
+    private String completeLine(StringBuilder line, boolean tooLong) {
+        lineNumber++;
+        if (tooLong) {
+            throw new IllegalArgumentException("Line longer than " + MAX_LINE_LENGTH + " characters");
+        }
+        return line.toString();
+    }
+
+    private static final class NdjsonRowReader extends ImportRowReader {
+        private static final ObjectMapper MAPPER = new ObjectMapper();
+
+        NdjsonRowReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            String line;
+            do {
+                line = readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+
+            JsonNode node;
+            try {
+                node = MAPPER.readTree(line);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Malformed JSON");
+            }
+            if (!node.isObject()) {
+                throw new IllegalArgumentException("Expected a JSON object");
+            }
+            Map<String, String> row = new HashMap<>();
+            node.fields().forEachRemaining(field -> row.put(field.getKey(),
+                    field.getValue().isNull() ? null : field.getValue().asText()));
+            return row;
+        }
+
+        @Override
+        public long lineNumber() {
+            return lineNumber;
+        }
+    }
+
+    /// RFC 4180: the first record is the header, fields may be quoted, quotes are doubled inside quotes,
+    /// and quoted fields may span lines.
+    private static final class CsvRowReader extends ImportRowReader {
+        private List<String> header;
+        private long rowLineNumber;
+
+        CsvRowReader(Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                header.replaceAll(h -> h.replace("\uFEFF", "").trim());
+            }
+            List<String> record;
+            do {
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isBlank());
+
+            if (record.size() != header.size()) {
+                throw new IllegalArgumentException("Expected " + header.size() + " columns, got " + record.size());
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), record.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public long lineNumber() {
+            return rowLineNumber;
+        }
+
+        private List<String> readRecord() throws IOException {
+            String line = readLine();
+            if (line == null) {
+                return null;
+            }
+            rowLineNumber = lineNumber;
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    if (field.length() >= MAX_LINE_LENGTH) {
+                        // most likely an unterminated quote, give up on it rather than buffer the rest of the file
+                        throw new IllegalArgumentException("Quoted field longer than " + MAX_LINE_LENGTH + " characters");
+                    }
+                    line = readLine();
+                    if (line == null) {
+                        throw new IllegalArgumentException("Unterminated quoted field");
+                    }
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
@@ -1,26 +1,32 @@
 package pw.react.backend.utils;
 
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.core.ObjectCodec;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.node.TextNode;
 
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 
+/// ISO-8601 local date-time, read straight from the parser's char buffer.
 public class JsonDateDeserializer extends JsonDeserializer<LocalDateTime> {
 
     @Override
     public LocalDateTime deserialize(JsonParser jp, DeserializationContext ctxt) throws IOException {
-        ObjectCodec oc = jp.getCodec();
-        TextNode node = oc.readTree(jp);
-        String dateString = node.textValue();
-        DateTimeFormatter formatter = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-        return LocalDateTime.parse(dateString, formatter)
-                .atZone(ZoneId.systemDefault())
-                .toLocalDateTime();
+        if (!jp.hasToken(JsonToken.VALUE_STRING)) {
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, jp);
+        }
+        LocalDateTime value = LocalDateTimeCodec.parse(jp.getTextCharacters(), jp.getTextOffset(), jp.getTextLength());
+        if (value == null) {
+            value = LocalDateTime.parse(jp.getText(), DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+        }
+        ZoneId zone = ZoneId.systemDefault();
+        // a time skipped by a DST change is moved past the gap, as LocalDateTime.atZone does
+        if (zone.getRules().getTransition(value) != null) {
+            value = value.atZone(zone).toLocalDateTime();
+        }
+        return value;
     }
 }
@@ -7,13 +7,25 @@ import com.fasterxml.jackson.databind.SerializerProvider;
 import java.io.IOException;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
 
+/// `yyyy-MM-dd'T'HH:mm:ss.Z` in the system time zone. Printed by hand; times at a DST change
+/// (skipped or repeated) and out-of-range years go through ZonedDateTime and the formatter.
 public class JsonDateSerializer extends JsonSerializer<LocalDateTime> {
-    private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.Z");
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.Z");
 
     @Override
     public void serialize(LocalDateTime localDateTime, JsonGenerator jsonGenerator, SerializerProvider serializerProvider) throws IOException {
-        final String dateString = ZonedDateTime.of(localDateTime, ZoneId.systemDefault()).format(formatter);
-        jsonGenerator.writeString(dateString);
+        ZoneId zone = ZoneId.systemDefault();
+        ZoneRules rules = zone.getRules();
+        if (rules.getTransition(localDateTime) == null) {
+            char[] buffer = new char[LocalDateTimeCodec.MAX_OFFSET_LENGTH];
+            int length = LocalDateTimeCodec.printWithOffset(localDateTime, rules.getOffset(localDateTime).getTotalSeconds(), buffer);
+            if (length > 0) {
+                jsonGenerator.writeString(buffer, 0, length);
+                return;
+            }
+        }
+        jsonGenerator.writeString(ZonedDateTime.of(localDateTime, zone).format(FORMATTER));
     }
 }
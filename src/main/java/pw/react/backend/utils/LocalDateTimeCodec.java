@@ -0,0 +1,139 @@
+package pw.react.backend.utils;
+
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+
+/// Hand-rolled ISO-8601 reading and writing of LocalDateTime on char arrays, for the Jackson codecs.
+/// Only years 0000-9999 are handled; callers fall back to java.time for everything this returns null / -1 for.
+public final class LocalDateTimeCodec {
+
+    /// `yyyy-MM-ddTHH:mm:ss.nnnnnnnnn`
+    public static final int MAX_LENGTH = 29;
+    /// `yyyy-MM-ddTHH:mm:ss.+HHMM`
+    public static final int MAX_OFFSET_LENGTH = 25;
+
+    private LocalDateTimeCodec() {
+    }
+
+    /// `yyyy-MM-ddTHH:mm[:ss[.f{1,9}]]`, as accepted by DateTimeFormatter.ISO_LOCAL_DATE_TIME.
+    /// Null when the text has another shape or is not a valid date-time.
+    public static LocalDateTime parse(char[] buf, int off, int len) {
+        if (len < 16 || len > MAX_LENGTH || len == 17 || len == 18 || len == 20) {
+            return null;
+        }
+        if (buf[off + 4] != '-' || buf[off + 7] != '-' || (buf[off + 10] != 'T' && buf[off + 10] != 't') || buf[off + 13] != ':') {
+            return null;
+        }
+        int year = digits(buf, off, 4);
+        int month = digits(buf, off + 5, 2);
+        int day = digits(buf, off + 8, 2);
+        int hour = digits(buf, off + 11, 2);
+        int minute = digits(buf, off + 14, 2);
+        int second = 0;
+        int nano = 0;
+        if (len > 16) {
+            if (buf[off + 16] != ':') {
+                return null;
+            }
+            second = digits(buf, off + 17, 2);
+            if (len > 19) {
+                if (buf[off + 19] != '.') {
+                    return null;
+                }
+                int fractionDigits = len - 20;
+                nano = digits(buf, off + 20, fractionDigits);
+                for (int i = fractionDigits; i < 9 && nano >= 0; i++) {
+                    nano *= 10;
+                }
+            }
+        }
+        if ((year | month | day | hour | minute | second | nano) < 0) {
+            return null;
+        }
+        try {
+            return LocalDateTime.of(year, month, day, hour, minute, second, nano);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    /// Writes `value` as DateTimeFormatter.ISO_LOCAL_DATE_TIME does (seconds always, fraction without
+    /// trailing zeros) into `out` from index 0; returns the length, or -1 for years outside 0000-9999.
+    public static int print(LocalDateTime value, char[] out) {
+        int pos = printDateTime(value, out);
+        if (pos < 0) {
+            return -1;
+        }
+        int nano = value.getNano();
+        if (nano != 0) {
+            out[pos++] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            for (int i = digits - 1; i >= 0; i--) {
+                out[pos + i] = (char) ('0' + nano % 10);
+                nano /= 10;
+            }
+            pos += digits;
+        }
+        return pos;
+    }
+
+    /// Writes `yyyy-MM-ddTHH:mm:ss.+HHMM` (the JsonDateSerializer pattern `yyyy-MM-dd'T'HH:mm:ss.Z`);
+    /// returns the length, or -1 for years outside 0001-9999.
+    public static int printWithOffset(LocalDateTime value, int offsetSeconds, char[] out) {
+        if (value.getYear() < 1) {
+            return -1;
+        }
+        int pos = printDateTime(value, out);
+        if (pos < 0) {
+            return -1;
+        }
+        out[pos++] = '.';
+        out[pos++] = offsetSeconds < 0 ? '-' : '+';
+        int abs = Math.abs(offsetSeconds);
+        pos = two(abs / 3600, out, pos);
+        return two(abs / 60 % 60, out, pos);
+    }
+
+    private static int printDateTime(LocalDateTime value, char[] out) {
+        int year = value.getYear();
+        if (year < 0 || year > 9999) {
+            return -1;
+        }
+        out[0] = (char) ('0' + year / 1000);
+        out[1] = (char) ('0' + year / 100 % 10);
+        two(year % 100, out, 2);
+        out[4] = '-';
+        two(value.getMonthValue(), out, 5);
+        out[7] = '-';
+        two(value.getDayOfMonth(), out, 8);
+        out[10] = 'T';
+        two(value.getHour(), out, 11);
+        out[13] = ':';
+        two(value.getMinute(), out, 14);
+        out[16] = ':';
+        return two(value.getSecond(), out, 17);
+    }
+
+    private static int two(int value, char[] out, int pos) {
+        out[pos] = (char) ('0' + value / 10);
+        out[pos + 1] = (char) ('0' + value % 10);
+        return pos + 2;
+    }
+
+    /// Value of `count` ASCII digits, -1 if any of them is not a digit.
+    private static int digits(char[] buf, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            int digit = buf[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,212 @@
+package pw.react.backend.utils;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.*;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.NumberDeserializers;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonFormatVisitorWrapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.std.NumberSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/// LocalDateTime and BigDecimal codecs that parse from the parser's char buffer and print into a small
+/// char array, instead of going through DateTimeFormatter, BigDecimal.toString and the String copies
+/// in between. The wire format is unchanged: ISO_LOCAL_DATE_TIME as JavaTimeModule writes it, and
+/// decimals as BigDecimal.toString. Everything off the fast path (@JsonFormat, dates as timestamps,
+/// exponents, more than 18 digits, binary formats) is handed to the standard Jackson implementation.
+/// Registered after JavaTimeModule, so these take precedence.
+public class ParklyJacksonModule extends SimpleModule {
+
+    public ParklyJacksonModule() {
+        super("ParklyJacksonModule");
+        addSerializer(LocalDateTime.class, new FastLocalDateTimeSerializer());
+        addDeserializer(LocalDateTime.class, new FastLocalDateTimeDeserializer());
+        addSerializer(BigDecimal.class, new FastBigDecimalSerializer());
+        addDeserializer(BigDecimal.class, new FastBigDecimalDeserializer());
+    }
+
+    private static boolean overridden(JsonFormat.Value format) {
+        return format != null && (format.hasPattern() || format.hasShape() || format.hasLocale()
+                || format.hasTimeZone() || format.hasLenient());
+    }
+
+    public static class FastLocalDateTimeSerializer extends StdScalarSerializer<LocalDateTime> implements ContextualSerializer {
+
+        public FastLocalDateTimeSerializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            if (overridden(findFormatOverrides(provider, property, handledType()))) {
+                return LocalDateTimeSerializer.INSTANCE.createContextual(provider, property);
+            }
+            return this;
+        }
+
+        @Override
+        public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            if (!provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                char[] buffer = new char[LocalDateTimeCodec.MAX_LENGTH];
+                int length = LocalDateTimeCodec.print(value, buffer);
+                if (length > 0) {
+                    gen.writeString(buffer, 0, length);
+                    return;
+                }
+            }
+            LocalDateTimeSerializer.INSTANCE.serialize(value, gen, provider);
+        }
+    }
+
+    public static class FastLocalDateTimeDeserializer extends StdScalarDeserializer<LocalDateTime> implements ContextualDeserializer {
+
+        public FastLocalDateTimeDeserializer() {
+            super(LocalDateTime.class);
+        }
+
+        @Override
+        public JsonDeserializer<?> createContextual(DeserializationContext ctxt, BeanProperty property) throws JsonMappingException {
+            if (overridden(findFormatOverrides(ctxt, property, handledType()))) {
+                return LocalDateTimeDeserializer.INSTANCE.createContextual(ctxt, property);
+            }
+            return this;
+        }
+
+        @Override
+        public LocalDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_STRING)) {
+                LocalDateTime value = LocalDateTimeCodec.parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                if (value != null) {
+                    return value;
+                }
+            }
+            return LocalDateTimeDeserializer.INSTANCE.deserialize(p, ctxt);
+        }
+    }
+
+    public static class FastBigDecimalSerializer extends StdScalarSerializer<BigDecimal> implements ContextualSerializer {
+
+        /// sign, 18 digits, a leading zero and the decimal point
+        private static final int MAX_LENGTH = 21;
+        private static final int MAX_DIGITS = 18;
+
+        public FastBigDecimalSerializer() {
+            super(BigDecimal.class);
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider provider, BeanProperty property) throws JsonMappingException {
+            if (overridden(findFormatOverrides(provider, property, handledType()))) {
+                return NumberSerializer.instance.createContextual(provider, property);
+            }
+            return this;
+        }
+
+        @Override
+        public void serialize(BigDecimal value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            int scale = value.scale();
+            int precision = value.precision();
+            // BigDecimal.toString switches to exponent notation below an adjusted exponent of -6
+            if (gen.canWriteFormattedNumbers() && !gen.isEnabled(JsonGenerator.Feature.WRITE_NUMBERS_AS_STRINGS)
+                    && scale >= 0 && scale <= MAX_DIGITS && precision <= MAX_DIGITS && precision - scale - 1 >= -6) {
+                long unscaled = scale == 0 ? value.longValue() : value.scaleByPowerOfTen(scale).longValue();
+                char[] buffer = new char[MAX_LENGTH];
+                gen.writeNumber(buffer, 0, print(unscaled, scale, buffer));
+                return;
+            }
+            gen.writeNumber(value);
+        }
+
+        @Override
+        public void acceptJsonFormatVisitor(JsonFormatVisitorWrapper visitor, JavaType typeHint) throws JsonMappingException {
+            NumberSerializer.instance.acceptJsonFormatVisitor(visitor, typeHint);
+        }
+
+        private static int print(long unscaled, int scale, char[] out) {
+            boolean negative = unscaled < 0;
+            long rest = Math.abs(unscaled);
+            int digits = 1;
+            for (long r = rest / 10; r != 0; r /= 10) {
+                digits++;
+            }
+            int width = Math.max(digits, scale + 1);
+            int length = (negative ? 1 : 0) + width + (scale > 0 ? 1 : 0);
+            int pos = length;
+            for (int i = 0; i < width; i++) {
+                if (i == scale && scale > 0) {
+                    out[--pos] = '.';
+                }
+                out[--pos] = (char) ('0' + rest % 10);
+                rest /= 10;
+            }
+            if (negative) {
+                out[--pos] = '-';
+            }
+            return length;
+        }
+    }
+
+    public static class FastBigDecimalDeserializer extends StdScalarDeserializer<BigDecimal> {
+
+        private static final int MAX_DIGITS = 18;
+
+        public FastBigDecimalDeserializer() {
+            super(BigDecimal.class);
+        }
+
+        @Override
+        public BigDecimal deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+            if (p.hasToken(JsonToken.VALUE_NUMBER_FLOAT) || p.hasToken(JsonToken.VALUE_NUMBER_INT)) {
+                BigDecimal value = parse(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+                if (value != null) {
+                    return value;
+                }
+            }
+            return NumberDeserializers.BigDecimalDeserializer.instance.deserialize(p, ctxt);
+        }
+
+        /// `-?digits(.digits)?` with at most 18 digits, null otherwise.
+        private static BigDecimal parse(char[] buf, int off, int len) {
+            int end = off + len;
+            int pos = off;
+            boolean negative = pos < end && buf[pos] == '-';
+            if (negative) {
+                pos++;
+            }
+            long unscaled = 0;
+            int digits = 0;
+            int scale = -1;
+            for (; pos < end; pos++) {
+                char c = buf[pos];
+                if (c >= '0' && c <= '9') {
+                    if (++digits > MAX_DIGITS) {
+                        return null;
+                    }
+                    unscaled = unscaled * 10 + (c - '0');
+                    if (scale >= 0) {
+                        scale++;
+                    }
+                } else if (c == '.' && scale < 0 && digits > 0) {
+                    scale = 0;
+                } else {
+                    return null;
+                }
+            }
+            if (digits == 0 || scale == 0) {
+                return null;
+            }
+            return BigDecimal.valueOf(negative ? -unscaled : unscaled, Math.max(scale, 0));
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package pw.react.backend.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/// Token bucket per logger: every logger under `prefix` may emit `burst` events at once and
+/// `eventsPerSecond` on average; the rest is dropped before a LoggingEvent is even built.
+/// Only levels up to `maxLevel` (WARN by default) are limited, so errors always get through.
+/// The first event let through after drops is preceded by a line with the number of dropped events.
+///
+/// ```
+/// <turboFilter class="pw.react.backend.utils.RateLimitingTurboFilter">
+///     <prefix>pw.react.backend</prefix>
+///     <eventsPerSecond>20</eventsPerSecond>
+///     <burst>200</burst>
+/// </turboFilter>
+/// ```
+public class RateLimitingTurboFilter extends TurboFilter {
+
+    private static final ThreadLocal<Boolean> REPORTING = new ThreadLocal<>();
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final LongSupplier nanoTime;
+    private String prefix = "";
+    private double eventsPerSecond = 20;
+    private int burst = 200;
+    private Level maxLevel = Level.WARN;
+
+    public RateLimitingTurboFilter() {
+        this(System::nanoTime);
+    }
+
+    /// For tests that move time forward by hand.
+    RateLimitingTurboFilter(LongSupplier nanoTime) {
+        this.nanoTime = nanoTime;
+    }
+
+    public void setPrefix(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public void setEventsPerSecond(double eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public void setMaxLevel(String maxLevel) {
+        this.maxLevel = Level.toLevel(maxLevel, Level.WARN);
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format is null for isXxxEnabled() checks; levels below the logger's effective level never become events
+        if (format == null || level.toInt() > maxLevel.toInt()
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())
+                || !logger.getName().startsWith(prefix) || REPORTING.get() != null) {
+            return FilterReply.NEUTRAL;
+        }
+        long now = nanoTime.getAsLong();
+        Bucket bucket = buckets.computeIfAbsent(logger.getName(), name -> new Bucket(burst, now));
+        long dropped = bucket.take(now, eventsPerSecond, burst);
+        if (dropped < 0) {
+            return FilterReply.DENY;
+        }
+        if (dropped > 0) {
+            REPORTING.set(Boolean.TRUE);
+            try {
+                logger.warn("Dropped {} log events of this logger over the rate limit of {}/s", dropped, eventsPerSecond);
+            } finally {
+                REPORTING.remove();
+            }
+        }
+        return FilterReply.NEUTRAL;
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilledAt;
+        private long dropped;
+
+        Bucket(int burst, long now) {
+            this.tokens = burst;
+            this.refilledAt = now;
+        }
+
+        /// -1 when the event has to be dropped, otherwise the number of events dropped since the last one let through.
+        synchronized long take(long now, double eventsPerSecond, int burst) {
+            // `now` is read before the lock, so another thread may already have refilled up to a later time
+            if (now > refilledAt) {
+                tokens = Math.min(burst, tokens + (now - refilledAt) * eventsPerSecond / 1e9);
+                refilledAt = now;
+            }
+            if (tokens < 1) {
+                dropped++;
+                return -1;
+            }
+            tokens--;
+            long result = dropped;
+            dropped = 0;
+            return result;
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package pw.react.backend.utils;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/// In-memory trigram index answering case- and accent-insensitive substring queries.
+/// Candidates come from the smallest posting list of the query's trigrams and are then
+/// verified against the stored text, so results match `lower(col) LIKE '%q%'` exactly.
+/// `similar` ranks documents by trigram overlap instead, which tolerates typos.
+public class TrigramIndex {
+
+    private final Map<Long, String> documents = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> trigramCounts = new ConcurrentHashMap<>();
+
+    public static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            // 'ł' has no canonical decomposition
+            if (c == 'ł' || c == 'Ł') {
+                c = 'l';
+            }
+            sb.append(Character.toLowerCase(c));
+        }
+        return sb.toString();
+    }
+
+    public synchronized void put(Long id, String text) {
+        remove(id);
+        String normalized = normalize(text);
+        documents.put(id, normalized);
+        Set<Long> trigrams = trigrams(normalized);
+        for (long trigram : trigrams) {
+            postings.computeIfAbsent(trigram, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+        trigramCounts.put(id, trigrams.size());
+    }
+
+    public synchronized void remove(Long id) {
+        String normalized = documents.remove(id);
+        if (normalized == null) {
+            return;
+        }
+        trigramCounts.remove(id);
+        for (long trigram : trigrams(normalized)) {
+            postings.computeIfPresent(trigram, (k, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public Set<Long> containing(String query) {
+        String q = normalize(query);
+        Set<Long> result = new HashSet<>();
+        if (q.length() < 3) {
+            documents.forEach((id, text) -> {
+                if (text.contains(q)) {
+                    result.add(id);
+                }
+            });
+            return result;
+        }
+
+        Set<Long> candidates = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Set<Long> ids = postings.get(trigram(q, i));
+            if (ids == null) {
+                return result;
+            }
+            if (candidates == null || ids.size() < candidates.size()) {
+                candidates = ids;
+            }
+        }
+        for (Long id : candidates) {
+            String text = documents.get(id);
+            if (text != null && text.contains(q)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    public record Match(Long id, double score) { }
+
+    /// Documents sharing at least `threshold` (Jaccard similarity of distinct trigrams) with the query,
+    /// best first, at most `limit` of them. Only posting lists of the query's own trigrams are visited.
+    public List<Match> similar(String query, double threshold, int limit) {
+        Set<Long> queryTrigrams = trigrams(normalize(query));
+        if (queryTrigrams.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> shared = new HashMap<>();
+        for (long trigram : queryTrigrams) {
+            Set<Long> ids = postings.get(trigram);
+            if (ids != null) {
+                ids.forEach(id -> shared.merge(id, 1, Integer::sum));
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        shared.forEach((id, common) -> {
+            Integer count = trigramCounts.get(id);
+            if (count == null) {
+                return;
+            }
+            double score = (double) common / (queryTrigrams.size() + count - common);
+            if (score >= threshold) {
+                matches.add(new Match(id, score));
+            }
+        });
+        matches.sort(Comparator.comparingDouble(Match::score).reversed().thenComparing(Match::id));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    /// Padded with a space on both sides so short words and word edges still produce trigrams;
+    /// substring queries use unpadded trigrams, which are a subset of these.
+    private static Set<Long> trigrams(String normalized) {
+        String padded = " " + normalized + " ";
+        Set<Long> trigrams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(trigram(padded, i));
+        }
+        return trigrams;
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+}
@@ -0,0 +1,6 @@
+package pw.react.backend.web;
+
+import pw.react.backend.models.BackgroundJob;
+
+/// Accepted upload plus the job that imports it; poll /api/jobs/{job.id} for progress and row errors.
+public record ImportResponse(UploadFileResponse file, BackgroundJob job) { }
@@ -0,0 +1,25 @@
+package pw.react.backend.web;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/// N+1 warnings in the logs, on with `parkly.query-detection.enabled=true`.
+/// The statement inspector is registered with Hibernate only then, so when off no SQL is inspected.
+@Configuration
+@ConditionalOnProperty(name = "parkly.query-detection.enabled", havingValue = "true")
+public class RepeatedQueryDetectionConfig {
+
+    @Bean
+    public RepeatedQueryFilter repeatedQueryFilter(@Value("${parkly.query-detection.repeat-threshold:5}") int repeatThreshold) {
+        return new RepeatedQueryFilter(repeatThreshold);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer repeatedQueryInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new RepeatedQueryDetector());
+    }
+}
@@ -0,0 +1,35 @@
+package pw.react.backend.web;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/// Counts how often each SQL statement Hibernate prepares on the request thread, so that the same
+/// statement repeated with different parameters (an N+1 behind an eager association or a loop of
+/// `findById`s) can be reported by RepeatedQueryFilter. Hibernate renders bind parameters as `?`,
+/// so the SQL text alone identifies the statement. Outside a request nothing is counted.
+public class RepeatedQueryDetector implements StatementInspector {
+
+    private static final ThreadLocal<Map<String, Integer>> CURRENT = new ThreadLocal<>();
+
+    static void start() {
+        CURRENT.set(new HashMap<>());
+    }
+
+    /// Statements prepared since `start()`, with their counts; the thread is unbound afterwards.
+    static Map<String, Integer> finish() {
+        Map<String, Integer> counts = CURRENT.get();
+        CURRENT.remove();
+        return counts == null ? Map.of() : counts;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Map<String, Integer> counts = CURRENT.get();
+        if (counts != null) {
+            counts.merge(sql, 1, Integer::sum);
+        }
+        return sql;
+    }
+}
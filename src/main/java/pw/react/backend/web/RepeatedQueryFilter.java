@@ -0,0 +1,41 @@
+package pw.react.backend.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/// Logs a warning for every statement a request ran at least `threshold` times, the usual sign
+/// of an N+1: one query for a list followed by one per row for an association.
+public class RepeatedQueryFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RepeatedQueryFilter.class);
+
+    private final int threshold;
+
+    public RepeatedQueryFilter(int threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RepeatedQueryDetector.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            for (Map.Entry<String, Integer> entry : RepeatedQueryDetector.finish().entrySet()) {
+                if (entry.getValue() >= threshold) {
+                    log.warn("Possible N+1 in {} {}: statement ran {} times: {}", request.getMethod(),
+                            request.getRequestURI(), entry.getValue(), entry.getKey());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package pw.react.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/// Per-request Server-Timing breakdown, on with `parkly.request-timing.enabled=true`.
+/// When off none of these beans exist: the data source is not wrapped and JSON is written by
+/// Boot's converter, so the only cost left is a ThreadLocal read per Carly call.
+@Configuration
+@ConditionalOnProperty(name = "parkly.request-timing.enabled", havingValue = "true")
+public class RequestTimingConfig {
+
+    @Bean
+    public RequestTimingFilter requestTimingFilter(@Value("${parkly.request-timing.slow-request-threshold:PT1S}") Duration slowRequestThreshold) {
+        return new RequestTimingFilter(slowRequestThreshold);
+    }
+
+    @Bean
+    public TimingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimingJackson2HttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public static BeanPostProcessor timingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof TimingDataSource)
+                        ? new TimingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+}
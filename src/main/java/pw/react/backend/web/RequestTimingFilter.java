@@ -0,0 +1,47 @@
+package pw.react.backend.web;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/// Collects RequestTimings for every request, sends them as `Server-Timing` and logs requests slower
+/// than the threshold with their breakdown. JSON bodies get the header from TimingJackson2HttpMessageConverter,
+/// which knows the serialization time before the body is written; other responses get it here if they
+/// are not committed yet (empty bodies, 304s, most errors).
+public class RequestTimingFilter extends OncePerRequestFilter {
+
+    static final String SERVER_TIMING = "Server-Timing";
+    private static final Logger log = LoggerFactory.getLogger(RequestTimingFilter.class);
+
+    private final long slowRequestNanos;
+
+    public RequestTimingFilter(Duration slowRequestThreshold) {
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        RequestTimings timings = RequestTimings.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestTimings.clear();
+            if (!response.isCommitted() && !response.containsHeader(SERVER_TIMING)) {
+                response.setHeader(SERVER_TIMING, timings.header());
+            }
+            long elapsed = timings.elapsedNanos();
+            if (elapsed > slowRequestNanos) {
+                log.warn("Slow request {} {} -> {} took {} ms: {}", request.getMethod(), request.getRequestURI(),
+                        response.getStatus(), elapsed / 1_000_000, timings);
+            }
+        }
+    }
+}
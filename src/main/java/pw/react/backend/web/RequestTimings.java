@@ -0,0 +1,66 @@
+package pw.react.backend.web;
+
+import java.util.Locale;
+
+/// Where the time of the current request went: database, Carly and response serialization.
+/// Bound to the request thread by RequestTimingFilter; `current()` is null outside a timed request
+/// (timing disabled, background jobs), so the producers only pay for a ThreadLocal read.
+public final class RequestTimings {
+
+    private static final ThreadLocal<RequestTimings> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private long dbNanos;
+    private int queryCount;
+    private long carlyNanos;
+    private int carlyCalls;
+    private long serializationNanos;
+
+    public static RequestTimings current() {
+        return CURRENT.get();
+    }
+
+    static RequestTimings start() {
+        RequestTimings timings = new RequestTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public void addQuery(long nanos) {
+        dbNanos += nanos;
+        queryCount++;
+    }
+
+    public void addCarlyCall(long nanos) {
+        carlyNanos += nanos;
+        carlyCalls++;
+    }
+
+    public void addSerialization(long nanos) {
+        serializationNanos += nanos;
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /// `Server-Timing` header value, durations in milliseconds.
+    public String header() {
+        return String.format(Locale.ROOT, "db;dur=%.1f;desc=\"%d queries\", carly;dur=%.1f;desc=\"%d calls\", ser;dur=%.1f, total;dur=%.1f",
+                millis(dbNanos), queryCount, millis(carlyNanos), carlyCalls, millis(serializationNanos), millis(elapsedNanos()));
+    }
+
+    @Override
+    public String toString() {
+        return String.format(Locale.ROOT, "db %.1f ms in %d queries, carly %.1f ms in %d calls, serialization %.1f ms",
+                millis(dbNanos), queryCount, millis(carlyNanos), carlyCalls, millis(serializationNanos));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,21 @@
+package pw.react.backend.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import pw.react.backend.utils.UserRole;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/// Verified caller of the current request, put on the request by SessionTokenFilter.
+public record SessionPrincipal(Long userId, UserRole role, String tokenId, Instant expiresAt) {
+
+    public static final String REQUEST_ATTRIBUTE = SessionPrincipal.class.getName();
+
+    public static Optional<SessionPrincipal> from(HttpServletRequest request) {
+        return Optional.ofNullable((SessionPrincipal) request.getAttribute(REQUEST_ATTRIBUTE));
+    }
+
+    public boolean isAdmin() {
+        return role == UserRole.ADMIN;
+    }
+}
@@ -0,0 +1,117 @@
+package pw.react.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+import pw.react.backend.exceptions.ExceptionDetails;
+import pw.react.backend.services.SessionTokenService;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/// Verifies the `Authorization: Bearer` session token of every request and exposes the caller as a
+/// SessionPrincipal request attribute. A token that does not verify is always rejected.
+/// With `parkly.auth.enforce=true` the role rules below are applied as well; otherwise requests without
+/// a token pass through unchanged.
+@Component
+public class SessionTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+    private static final Pattern USER_PATH = Pattern.compile("/api/users/([^/]+)/?");
+
+    private final SessionTokenService sessionTokenService;
+    private final ObjectMapper objectMapper;
+    private final boolean enforce;
+
+    public SessionTokenFilter(SessionTokenService sessionTokenService, ObjectMapper objectMapper,
+                              @Value("${parkly.auth.enforce:false}") boolean enforce) {
+        this.sessionTokenService = sessionTokenService;
+        this.objectMapper = objectMapper;
+        this.enforce = enforce;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        SessionPrincipal principal = null;
+        if (header != null && header.startsWith(BEARER)) {
+            Optional<SessionPrincipal> verified = sessionTokenService.verify(header.substring(BEARER.length()).trim());
+            if (verified.isEmpty()) {
+                reject(request, response, HttpStatus.UNAUTHORIZED, "Invalid or expired session token");
+                return;
+            }
+            principal = verified.get();
+            request.setAttribute(SessionPrincipal.REQUEST_ATTRIBUTE, principal);
+        }
+
+        if (enforce) {
+            String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+            Access access = requiredAccess(path, request.getMethod());
+            if (access != Access.PUBLIC && principal == null) {
+                reject(request, response, HttpStatus.UNAUTHORIZED, "Session token required");
+                return;
+            }
+            if (access == Access.ADMIN && !principal.isAdmin()) {
+                reject(request, response, HttpStatus.FORBIDDEN, "Admin role required");
+                return;
+            }
+            if (access == Access.SELF_OR_ADMIN && !principal.isAdmin() && !isSelf(path, principal)) {
+                reject(request, response, HttpStatus.FORBIDDEN, "Admin role required to change other users");
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    enum Access { PUBLIC, USER, SELF_OR_ADMIN, ADMIN }
+
+    /// `path` has to be what Spring MVC matches against: decoded, without `;` parameters, e.g. from UrlPathHelper.
+    static Access requiredAccess(String path, String method) {
+        boolean read = HttpMethod.GET.matches(method);
+
+        if (!path.startsWith("/api/") || HttpMethod.OPTIONS.matches(method)) {
+            return Access.PUBLIC;
+        }
+        if (HttpMethod.POST.matches(method) && (path.equals("/api/users") || path.equals("/api/users/login"))) {
+            return Access.PUBLIC;
+        }
+        if (path.startsWith("/api/parking-areas") || path.startsWith("/api/parking-spots")) {
+            return read ? Access.PUBLIC : Access.ADMIN;
+        }
+        if (path.startsWith("/api/import") || path.startsWith("/api/jobs")
+                || path.startsWith("/api/users/page") || path.startsWith("/api/reservations/page")
+                || path.equals("/api/reservations/export")) {
+            return Access.ADMIN;
+        }
+        if (USER_PATH.matcher(path).matches() && (HttpMethod.PUT.matches(method) || HttpMethod.DELETE.matches(method))) {
+            return Access.SELF_OR_ADMIN;
+        }
+        return Access.USER;
+    }
+
+    private static boolean isSelf(String path, SessionPrincipal principal) {
+        Matcher matcher = USER_PATH.matcher(path);
+        return matcher.matches() && matcher.group(1).equals(String.valueOf(principal.userId()));
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        ExceptionDetails details = new ExceptionDetails(status, message);
+        details.setPath(request.getRequestURI());
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), details);
+    }
+}
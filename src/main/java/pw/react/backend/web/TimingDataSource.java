@@ -0,0 +1,59 @@
+package pw.react.backend.web;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/// Adds the time of every `execute*` call made on the request thread to its RequestTimings,
+/// for JPA and JdbcTemplate alike. Connections and statements are thin JDK proxies; `unwrap`
+/// still reaches the pool, so pool metrics and health checks are unaffected.
+public class TimingDataSource extends DelegatingDataSource {
+
+    public TimingDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy(Connection.class, super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy(Connection.class, super.getConnection(username, password));
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (proxy, method, args) -> invoke(target, method, args);
+        return type.cast(Proxy.newProxyInstance(TimingDataSource.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        RequestTimings timings = method.getName().startsWith("execute") ? RequestTimings.current() : null;
+        long start = timings == null ? 0 : System.nanoTime();
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getTargetException();
+        } finally {
+            if (timings != null) {
+                timings.addQuery(System.nanoTime() - start);
+            }
+        }
+        // statements created by a connection are wrapped as their declared type (Statement, PreparedStatement, CallableStatement)
+        if (result instanceof Statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+            @SuppressWarnings("unchecked")
+            Class<Statement> type = (Class<Statement>) method.getReturnType();
+            return proxy(type, (Statement) result);
+        }
+        return result;
+    }
+}
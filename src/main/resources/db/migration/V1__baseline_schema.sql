@@ -0,0 +1,45 @@
+-- Schema as previously generated by Hibernate (ddl-auto=update).
+-- Databases created that way are baselined at version 1 and skip this script.
+
+CREATE TABLE IF NOT EXISTS parking_area (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255) NOT NULL,
+    address     VARCHAR(255) NOT NULL,
+    city        VARCHAR(255) NOT NULL,
+    hourly_rate DECIMAL(10, 2),
+    longitude   DECIMAL(10, 3),
+    latitude    DECIMAL(10, 3),
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS parking_spot (
+    id              BIGINT       NOT NULL AUTO_INCREMENT,
+    spot_number     VARCHAR(255) NOT NULL,
+    parking_area_id BIGINT       NOT NULL,
+    is_available    BIT          NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_parking_spot_parking_area FOREIGN KEY (parking_area_id) REFERENCES parking_area (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS `user` (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    username   VARCHAR(255) NOT NULL,
+    email      VARCHAR(255) NOT NULL,
+    first_name VARCHAR(255) NOT NULL,
+    last_name  VARCHAR(255) NOT NULL,
+    role       TINYINT      NOT NULL,
+    PRIMARY KEY (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE IF NOT EXISTS reservation (
+    id              BIGINT      NOT NULL AUTO_INCREMENT,
+    parking_spot_id BIGINT      NOT NULL,
+    user_id         BIGINT      NOT NULL,
+    start_time      DATETIME(6) NOT NULL,
+    end_time        DATETIME(6) NOT NULL,
+    total_cost      DECIMAL(10, 2),
+    created_at      DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_reservation_parking_spot FOREIGN KEY (parking_spot_id) REFERENCES parking_spot (id),
+    CONSTRAINT fk_reservation_user FOREIGN KEY (user_id) REFERENCES `user` (id)
+) ENGINE = InnoDB;
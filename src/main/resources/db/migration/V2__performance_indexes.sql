@@ -0,0 +1,17 @@
+-- UserRepository.findByUsername / existsByUsername
+CREATE UNIQUE INDEX ux_user_username ON `user` (username);
+
+-- ParkingAreaRepository.existsByName
+CREATE UNIQUE INDEX ux_parking_area_name ON parking_area (name);
+
+-- ParkingSpotRepository.existsByParkingAreaAndSpotNumber / findBySpotNumberAndParkingArea
+CREATE UNIQUE INDEX ux_parking_spot_area_number ON parking_spot (parking_area_id, spot_number);
+
+-- ParkingSpotRepository.findParkingSpotsByParkingAreaIdAndIsAvailableTrue / countAvailableSpotsGroupedByParkingArea
+CREATE INDEX ix_parking_spot_area_available ON parking_spot (parking_area_id, is_available);
+
+-- ReservationRepository.findByUserId, newest-first user history
+CREATE INDEX ix_reservation_user_start ON reservation (user_id, start_time);
+
+-- ReservationRepository.existsByUserAndParkingSpotAndStartTimeAndEndTime / findByParkingSpot / deleteByParkingSpotId
+CREATE INDEX ix_reservation_spot_period ON reservation (parking_spot_id, start_time, end_time);
@@ -0,0 +1,4 @@
+-- Sort keys of the parking spot listings (ParkingSpotSortKey); InnoDB appends id as the tiebreaker.
+-- parkingAreaId is served by ux_parking_spot_area_number from V2.
+CREATE INDEX ix_parking_spot_number ON parking_spot (spot_number);
+CREATE INDEX ix_parking_spot_available ON parking_spot (is_available);
@@ -0,0 +1,9 @@
+-- Lower-cased, accent-folded copies of first_name / last_name (TrigramIndex.normalize), kept up to date
+-- by User's entity callbacks and backfilled by V5. Prefix LIKE on these columns can use the indexes,
+-- unlike lower(first_name) LIKE '%x%'.
+ALTER TABLE `user`
+    ADD COLUMN first_name_search VARCHAR(255) NULL,
+    ADD COLUMN last_name_search  VARCHAR(255) NULL;
+
+CREATE INDEX ix_user_first_name_search ON `user` (first_name_search);
+CREATE INDEX ix_user_last_name_search ON `user` (last_name_search);
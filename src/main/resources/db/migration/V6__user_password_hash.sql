@@ -0,0 +1,4 @@
+-- PasswordHasher output for users who set a password. Existing rows stay NULL; such users cannot log in
+-- while parkly.auth.enforce=true until a password is set for them.
+ALTER TABLE `user`
+    ADD COLUMN password_hash VARCHAR(255) NULL;
@@ -0,0 +1,4 @@
+-- Epoch millis; session tokens of the user issued at or before it are rejected. Set on role or password changes,
+-- and kept in the database so the revocation survives a restart.
+ALTER TABLE `user`
+    ADD COLUMN tokens_not_before BIGINT NULL;
@@ -0,0 +1,51 @@
+package pw.react.backend;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/// Boots the whole application, second-level cache included, and checks that the regions
+/// sized in application.conf are the ones Hibernate uses.
+@SpringBootTest
+@ActiveProfiles("test")
+class BackendApplicationTests {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void contextLoads() {
+    }
+
+    @Test
+    void parkingSpotRegionUsesItsOwnConfiguration() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(RegionFactory.class);
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+
+        Cache<Object, Object> parkingSpots = cacheManager.getCache("parkingSpot");
+        assertNotNull(parkingSpots);
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> configuration = parkingSpots.getConfiguration(CaffeineConfiguration.class);
+        assertEquals(OptionalLong.of(100_000), configuration.getMaximumSize());
+
+        Cache<Object, Object> parkingAreas = cacheManager.getCache("parkingArea");
+        assertNotNull(parkingAreas);
+        @SuppressWarnings("unchecked")
+        CaffeineConfiguration<Object, Object> defaults = parkingAreas.getConfiguration(CaffeineConfiguration.class);
+        assertEquals(OptionalLong.of(10_000), defaults.getMaximumSize());
+    }
+}
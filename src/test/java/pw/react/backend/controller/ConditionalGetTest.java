@@ -0,0 +1,155 @@
+package pw.react.backend.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.ParkingSpotRepository;
+import pw.react.backend.dao.ReservationRepository;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.dto.ReturnParkingSpotDTO;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.User;
+import pw.react.backend.services.*;
+import pw.react.backend.utils.UserRole;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// A GET carrying the current ETag in If-None-Match must be answered with 304 without a single query.
+/// Queries are counted as invocations on the (mocked) repositories behind the real services.
+class ConditionalGetTest {
+
+    private ResourceVersions resourceVersions;
+    private ParkingAreaRepository parkingAreaRepository;
+    private UserRepository userRepository;
+    private FreeSpotCounter freeSpotCounter;
+    private ParkingSpotService parkingSpotService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        resourceVersions = new ResourceVersions(true);
+        parkingAreaRepository = mock(ParkingAreaRepository.class);
+        userRepository = mock(UserRepository.class);
+        freeSpotCounter = mock(FreeSpotCounter.class);
+        parkingSpotService = mock(ParkingSpotService.class);
+
+        ParkingArea area = new ParkingArea();
+        area.setId(1L);
+        area.setName("Centrum");
+        when(parkingAreaRepository.findById(1L)).thenReturn(Optional.of(area));
+        when(freeSpotCounter.get(1L)).thenReturn(3L);
+
+        User user = new User();
+        user.setId(7L);
+        user.setUsername("jan");
+        user.setRole(UserRole.USER);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+
+        when(parkingSpotService.getParkingSpotsByParkingAreaId(1L))
+                .thenReturn(List.of(new ReturnParkingSpotDTO(10L, "A1", 1L, true)));
+
+        ParkingAreaService parkingAreaService = new ParkingAreaMainService(parkingAreaRepository, mock(ParkingSpotRepository.class),
+                mock(ReservationRepository.class), mock(ParkingAreaGeoIndex.class), freeSpotCounter, mock(ParkingAreaSearchIndex.class),
+                mock(ApplicationEventPublisher.class), mock(UniqueNameFilter.class), resourceVersions);
+        UserService userService = new UserMainService(userRepository, mock(SessionTokenService.class), mock(UserSearchIndex.class),
+                mock(UniqueNameFilter.class), resourceVersions, false);
+
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                new ParkingAreaController(parkingAreaService, parkingSpotService, mock(BackgroundJobRegistry.class), resourceVersions),
+                new ParkingSpotController(parkingSpotService, resourceVersions),
+                new UserController(userService, mock(SessionTokenService.class), resourceVersions, false)
+        ).build();
+    }
+
+    @Test
+    void parkingAreaRevalidationSkipsTheDatabase() throws Exception {
+        String eTag = mockMvc.perform(get("/api/parking-areas/1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals(1, queries(parkingAreaRepository));
+
+        mockMvc.perform(get("/api/parking-areas/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag));
+        assertEquals(1, queries(parkingAreaRepository));
+    }
+
+    @Test
+    void parkingAreaChangeOrFreeSpotMoveInvalidatesTheTag() throws Exception {
+        String eTag = mockMvc.perform(get("/api/parking-areas/1"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        when(freeSpotCounter.get(1L)).thenReturn(2L);
+        String afterReservation = mockMvc.perform(get("/api/parking-areas/1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(eTag, afterReservation);
+
+        resourceVersions.parkingAreaChanged(1L);
+        mockMvc.perform(get("/api/parking-areas/1").header(HttpHeaders.IF_NONE_MATCH, afterReservation))
+                .andExpect(status().isOk());
+        assertEquals(3, queries(parkingAreaRepository));
+    }
+
+    @Test
+    void parkingSpotListRevalidationSkipsTheService() throws Exception {
+        String eTag = mockMvc.perform(get("/api/parking-spots/pa").param("paId", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/parking-spots/pa").param("paId", "1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(parkingSpotService, times(1)).getParkingSpotsByParkingAreaId(1L);
+
+        resourceVersions.onParkingSpotChanged(new ParkingSpotChangedEvent(1L));
+        mockMvc.perform(get("/api/parking-spots/pa").param("paId", "1").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        verify(parkingSpotService, times(2)).getParkingSpotsByParkingAreaId(1L);
+    }
+
+    @Test
+    void userRevalidationSkipsTheDatabase() throws Exception {
+        String eTag = mockMvc.perform(get("/api/users/7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/users/7").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        assertEquals(1, queries(userRepository));
+
+        resourceVersions.userChanged(7L);
+        mockMvc.perform(get("/api/users/7").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertEquals(2, queries(userRepository));
+    }
+
+    @Test
+    void disabledVersionsSendNoTagsAndNever304() throws Exception {
+        String eTag = mockMvc.perform(get("/api/users/7"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        UserService userService = new UserMainService(userRepository, mock(SessionTokenService.class), mock(UserSearchIndex.class),
+                mock(UniqueNameFilter.class), resourceVersions, false);
+        MockMvc disabled = MockMvcBuilders.standaloneSetup(
+                new UserController(userService, mock(SessionTokenService.class), new ResourceVersions(false), false)).build();
+
+        disabled.perform(get("/api/users/7").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
+    private static int queries(Object repository) {
+        return mockingDetails(repository).getInvocations().size();
+    }
+}
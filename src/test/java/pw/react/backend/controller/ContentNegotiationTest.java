@@ -0,0 +1,92 @@
+package pw.react.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.models.ParkingArea;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// The CBOR and Smile converters registered in MainConfig answer a real endpoint when asked for, and JSON
+/// stays the answer to `*/*` and to requests without an Accept header.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ContentNegotiationTest {
+
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ParkingAreaRepository parkingAreaRepository;
+
+    private Long parkingAreaId;
+
+    @BeforeAll
+    void seedParkingArea() {
+        ParkingArea area = new ParkingArea();
+        area.setName("Negotiated area");
+        area.setAddress("Binary street 1");
+        area.setCity("Warsaw");
+        area.setHourlyRate(new BigDecimal("7.50"));
+        parkingAreaId = parkingAreaRepository.save(area).getId();
+    }
+
+    @Test
+    void answersCborWhenAskedFor() throws Exception {
+        JsonNode body = fetch(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_CBOR, new ObjectMapper(new CBORFactory()));
+        assertArea(body);
+    }
+
+    @Test
+    void answersSmileWhenAskedFor() throws Exception {
+        JsonNode body = fetch(SMILE, SMILE, new ObjectMapper(new SmileFactory()));
+        assertArea(body);
+    }
+
+    @Test
+    void answersJsonToAnythingAndToNoAcceptHeader() throws Exception {
+        assertArea(fetch(MediaType.ALL, MediaType.APPLICATION_JSON, new ObjectMapper()));
+        assertArea(fetch(null, MediaType.APPLICATION_JSON, new ObjectMapper()));
+    }
+
+    private JsonNode fetch(MediaType accept, MediaType expected, ObjectMapper decoder) throws Exception {
+        var request = get("/api/parking-areas/{id}", parkingAreaId);
+        if (accept != null) {
+            request.header(HttpHeaders.ACCEPT, accept.toString());
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn();
+        MediaType contentType = MediaType.parseMediaType(result.getResponse().getContentType());
+        assertEquals(expected.getType() + "/" + expected.getSubtype(), contentType.getType() + "/" + contentType.getSubtype());
+        return decoder.readTree(result.getResponse().getContentAsByteArray());
+    }
+
+    private void assertArea(JsonNode body) {
+        assertEquals(parkingAreaId.longValue(), body.get("id").asLong());
+        assertEquals("Negotiated area", body.get("name").asText());
+        assertEquals("Warsaw", body.get("city").asText());
+        assertEquals(0, new BigDecimal("7.50").compareTo(body.get("hourlyRate").decimalValue()));
+        assertEquals(0, body.get("freeSpots").asLong());
+    }
+}
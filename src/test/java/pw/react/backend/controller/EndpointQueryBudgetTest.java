@@ -0,0 +1,137 @@
+package pw.react.backend.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.ParkingSpotRepository;
+import pw.react.backend.dao.ReservationRepository;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.models.Reservation;
+import pw.react.backend.models.User;
+import pw.react.backend.utils.UserRole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// Query budgets of the read endpoints, measured on H2 with a cold second-level cache.
+/// Every reservation has its own spot, area and user, so an association loaded row by row
+/// (an eager @ManyToOne without a fetch join) blows the budget of the page endpoints.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EndpointQueryBudgetTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ParkingAreaRepository parkingAreaRepository;
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private ParkingArea area;
+    private ParkingSpot spot;
+    private User user;
+    private Reservation reservation;
+
+    @BeforeAll
+    void seed() {
+        List<Reservation> reservations = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            ParkingArea pa = new ParkingArea();
+            pa.setName("Area " + i);
+            pa.setAddress("Street " + i);
+            pa.setCity("Warsaw");
+            pa.setHourlyRate(BigDecimal.TEN);
+            pa = parkingAreaRepository.save(pa);
+
+            ParkingSpot ps = new ParkingSpot();
+            ps.setSpotNumber("A" + i);
+            ps.setParkingArea(pa);
+            ps.setIsAvailable(false);
+            ps = parkingSpotRepository.save(ps);
+
+            User u = new User();
+            u.setUsername("user" + i);
+            u.setEmail("user" + i + "@example.com");
+            u.setFirstName("First" + i);
+            u.setLastName("Last" + i);
+            u.setRole(UserRole.USER);
+            u = userRepository.save(u);
+
+            Reservation r = new Reservation();
+            r.setParkingSpot(ps);
+            r.setUser(u);
+            r.setStartTime(LocalDateTime.of(2025, 1, 1, 10, 0).plusDays(i));
+            r.setEndTime(LocalDateTime.of(2025, 1, 1, 12, 0).plusDays(i));
+            r.setTotalCost(BigDecimal.valueOf(20));
+            r.setCreatedAt(LocalDateTime.of(2025, 1, 1, 9, 0));
+            reservations.add(reservationRepository.save(r));
+        }
+        reservation = reservations.get(0);
+        spot = reservation.getParkingSpot();
+        area = spot.getParkingArea();
+        user = reservation.getUser();
+    }
+
+    @Test
+    @QueryBudget(2)
+    void reservationPage() throws Exception {
+        mockMvc.perform(get("/api/reservations/page/0").param("size", String.valueOf(ROWS))).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void userReservationPage() throws Exception {
+        mockMvc.perform(get("/api/reservations/user/{id}/page/0", user.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void reservationById() throws Exception {
+        mockMvc.perform(get("/api/reservations/{id}", reservation.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void parkingAreaPage() throws Exception {
+        mockMvc.perform(get("/api/parking-areas/page/0").param("size", String.valueOf(ROWS))).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void parkingAreaById() throws Exception {
+        mockMvc.perform(get("/api/parking-areas/{id}", area.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void parkingSpotById() throws Exception {
+        mockMvc.perform(get("/api/parking-spots/{id}", spot.getId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void userById() throws Exception {
+        mockMvc.perform(get("/api/users/{id}", user.getId())).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,133 @@
+package pw.react.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.ParkingSpotRepository;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.specifications.ParkingSpotSortKey;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// Walks `/api/parking-spots/seek` page by page for every sort key, direction and a few page sizes: each spot
+/// has to come back exactly once, in order. The seeded spots share spot numbers across areas and mostly share
+/// availability, so most page boundaries fall inside runs of equal sort values and only the id breaks the tie.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ParkingSpotSeekTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private ParkingAreaRepository parkingAreaRepository;
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    private final Map<Long, ParkingSpot> seeded = new HashMap<>();
+
+    @BeforeAll
+    void seedSpots() {
+        for (int a = 0; a < 3; a++) {
+            ParkingArea area = new ParkingArea();
+            area.setName("Seek area " + a);
+            area.setAddress("Seek street " + a);
+            area.setCity("Warsaw");
+            area.setHourlyRate(BigDecimal.ONE);
+            area = parkingAreaRepository.save(area);
+            for (int n = 0; n < 12; n++) {
+                ParkingSpot spot = new ParkingSpot();
+                spot.setParkingArea(area);
+                spot.setSpotNumber("S" + (n % 6) + (n < 6 ? "" : "b"));
+                spot.setIsAvailable(n % 5 != 0);
+                spot = parkingSpotRepository.save(spot);
+                seeded.put(spot.getId(), spot);
+            }
+        }
+    }
+
+    static Stream<Arguments> walks() {
+        return Arrays.stream(ParkingSpotSortKey.values())
+                .flatMap(key -> Stream.of("asc", "desc")
+                        .flatMap(direction -> Stream.of(1, 4, 7, 100)
+                                .map(size -> Arguments.of(key, direction, size))));
+    }
+
+    @ParameterizedTest(name = "{0} {1} size {2}")
+    @MethodSource("walks")
+    void everySpotComesBackExactlyOnceInOrder(ParkingSpotSortKey key, String direction, int size) throws Exception {
+        List<Long> walked = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            MockHttpServletRequestBuilder request = get("/api/parking-spots/seek")
+                    .param("sortBy", key.param())
+                    .param("sortDirection", direction)
+                    .param("size", String.valueOf(size));
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            assertTrue(page.get("content").size() <= size);
+            for (JsonNode spot : page.get("content")) {
+                walked.add(spot.get("Id").asLong());
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            assertTrue(++pages <= 10_000, "the walk does not end");
+        } while (cursor != null);
+
+        assertEquals(walked.size(), new HashSet<>(walked).size(), "a spot came back twice: " + walked);
+        assertTrue(walked.containsAll(seeded.keySet()), "a spot was skipped: " + walked);
+
+        // spots other tests created are in the walk too; the order is checked on the seeded ones
+        Comparator<ParkingSpot> order = order(key);
+        if (direction.equals("desc")) {
+            order = order.reversed();
+        }
+        ParkingSpot previous = null;
+        for (Long id : walked) {
+            ParkingSpot spot = seeded.get(id);
+            if (spot == null) {
+                continue;
+            }
+            if (previous != null) {
+                assertTrue(order.compare(previous, spot) < 0, previous.getId() + " before " + spot.getId());
+            }
+            previous = spot;
+        }
+    }
+
+    private static Comparator<ParkingSpot> order(ParkingSpotSortKey key) {
+        Comparator<ParkingSpot> byId = Comparator.comparing(ParkingSpot::getId);
+        return switch (key) {
+            case ID -> byId;
+            case SPOT_NUMBER -> Comparator.comparing(ParkingSpot::getSpotNumber).thenComparing(byId);
+            case PARKING_AREA -> Comparator.comparing((ParkingSpot s) -> s.getParkingArea().getId())
+                    .thenComparing(ParkingSpot::getSpotNumber).thenComparing(byId);
+            case IS_AVAILABLE -> Comparator.comparing(ParkingSpot::getIsAvailable).thenComparing(byId);
+        };
+    }
+}
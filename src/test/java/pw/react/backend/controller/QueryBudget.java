@@ -0,0 +1,17 @@
+package pw.react.backend.controller;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/// Most SQL statements Hibernate may prepare while the annotated test runs, counted from a cold
+/// second-level cache. Needs a Spring test context with `hibernate.generate_statistics=true`.
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+    int value();
+}
@@ -0,0 +1,45 @@
+package pw.react.backend.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/// Resets Hibernate statistics and empties the second-level cache right before a @QueryBudget test
+/// (after its @BeforeEach), then fails it if more statements were prepared than the budget allows.
+class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        EntityManagerFactory entityManagerFactory = entityManagerFactory(context);
+        entityManagerFactory.getCache().evictAll();
+        statistics(entityManagerFactory).clear();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        QueryBudget budget = context.getRequiredTestMethod().getAnnotation(QueryBudget.class);
+        Statistics statistics = statistics(entityManagerFactory(context));
+        long statements = statistics.getPrepareStatementCount();
+        if (statements > budget.value()) {
+            fail(String.format("%s prepared %d statements, budget is %d (entity fetches: %d, collection fetches: %d, queries: %s)",
+                    context.getDisplayName(), statements, budget.value(), statistics.getEntityFetchCount(),
+                    statistics.getCollectionFetchCount(), Arrays.toString(statistics.getQueries())));
+        }
+    }
+
+    private static EntityManagerFactory entityManagerFactory(ExtensionContext context) {
+        return SpringExtension.getApplicationContext(context).getBean(EntityManagerFactory.class);
+    }
+
+    private static Statistics statistics(EntityManagerFactory entityManagerFactory) {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+}
@@ -0,0 +1,109 @@
+package pw.react.backend.controller;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.ParkingSpotRepository;
+import pw.react.backend.dao.ReservationRepository;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.models.Reservation;
+import pw.react.backend.models.User;
+import pw.react.backend.utils.UserRole;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// The export streams on a driver other than Connector/J and gets its long async timeout on its own response.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReservationExportTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ParkingAreaRepository parkingAreaRepository;
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    private Reservation reservation;
+
+    @BeforeAll
+    void seed() {
+        ParkingArea area = new ParkingArea();
+        area.setName("Export area");
+        area.setAddress("Export street");
+        area.setCity("Warsaw");
+        area.setHourlyRate(BigDecimal.TEN);
+        area = parkingAreaRepository.save(area);
+
+        ParkingSpot spot = new ParkingSpot();
+        spot.setSpotNumber("E1");
+        spot.setParkingArea(area);
+        spot.setIsAvailable(false);
+        spot = parkingSpotRepository.save(spot);
+
+        User user = new User();
+        user.setUsername("exporter");
+        user.setEmail("exporter@example.com");
+        user.setFirstName("Export");
+        user.setLastName("User");
+        user.setRole(UserRole.USER);
+        user = userRepository.save(user);
+
+        Reservation r = new Reservation();
+        r.setParkingSpot(spot);
+        r.setUser(user);
+        r.setStartTime(LocalDateTime.of(2030, 1, 1, 10, 0));
+        r.setEndTime(LocalDateTime.of(2030, 1, 1, 12, 0));
+        r.setTotalCost(BigDecimal.valueOf(20));
+        r.setCreatedAt(LocalDateTime.of(2030, 1, 1, 9, 0));
+        reservation = reservationRepository.save(r);
+    }
+
+    @Test
+    void exportStreamsWithItsOwnTimeout() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reservations/export")
+                        .param("format", "csv")
+                        .param("from", "2030-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(Duration.ofMinutes(30).toMillis(), result.getRequest().getAsyncContext().getTimeout());
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString(reservation.getId() + "," + reservation.getParkingSpot().getId() + ",E1,")));
+    }
+
+    @Test
+    void unknownFormatIsABadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/reservations/export").param("format", "xml"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("Format must be csv or ndjson"));
+    }
+}
@@ -0,0 +1,222 @@
+package pw.react.backend.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.User;
+import pw.react.backend.services.AdminBootstrap;
+import pw.react.backend.services.UniqueNameFilter;
+import pw.react.backend.services.UserSearchIndex;
+import pw.react.backend.utils.PasswordHasher;
+import pw.react.backend.utils.UserRole;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// Sign-up, login and user writes with `parkly.auth.enforce=true`: nobody gets a role or another
+/// user's account they were not given. The only admin at the start is the one AdminBootstrap sets up.
+@SpringBootTest(properties = {"parkly.auth.enforce=true", "parkly.auth.admin-username=root",
+        "parkly.auth.admin-password=root-password"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class UserAuthorizationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private UniqueNameFilter uniqueNameFilter;
+    @Autowired
+    private UserSearchIndex userSearchIndex;
+
+    private String adminToken;
+
+    @BeforeAll
+    void loginAsBootstrappedAdmin() throws Exception {
+        adminToken = login("root", "root-password");
+    }
+
+    @Test
+    void signUpAlwaysGivesTheUserRole() throws Exception {
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content(signUp("mallory", "ADMIN", "secret")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.role").value("USER"));
+
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                        .content(signUp("operator", "ADMIN", "secret")))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.role").value("ADMIN"));
+    }
+
+    @Test
+    void signUpNeedsAPassword() throws Exception {
+        mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content(signUp("nopassword", "USER", null)))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void loginChecksThePassword() throws Exception {
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"root\",\"password\":\"guess\"}"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"root\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void bootstrapSetsUpAnAdminWithoutAPasswordButKeepsAnExistingPassword() throws Exception {
+        User legacy = new User();
+        legacy.setUsername("legacy");
+        legacy.setEmail("legacy@example.com");
+        legacy.setFirstName("Legacy");
+        legacy.setLastName("Admin");
+        legacy.setRole(UserRole.USER);
+        userRepository.save(legacy);
+        uniqueNameFilter.usernames().add("legacy");
+
+        bootstrap("legacy", "first-password");
+        assertEquals(UserRole.ADMIN, userRepository.findByUsername("legacy").orElseThrow().getRole());
+        String token = login("legacy", "first-password");
+        mockMvc.perform(get("/api/users/page/0").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+                .andExpect(status().isOk());
+
+        bootstrap("legacy", "second-password");
+        login("legacy", "first-password");
+        mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"legacy\",\"password\":\"second-password\"}"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void bootstrapCreatesAMissingAdmin() throws Exception {
+        bootstrap("fresh-admin", "fresh-password");
+        User admin = userRepository.findByUsername("fresh-admin").orElseThrow();
+        assertEquals(UserRole.ADMIN, admin.getRole());
+        login("fresh-admin", "fresh-password");
+    }
+
+    /// As if written by another instance: the name is in the database but not in this instance's filter.
+    @Test
+    void loginFindsUsersTheNameFilterHasNotSeen() throws Exception {
+        User user = new User();
+        user.setUsername("elsewhere");
+        user.setEmail("elsewhere@example.com");
+        user.setFirstName("Else");
+        user.setLastName("Where");
+        user.setRole(UserRole.USER);
+        user.setPasswordHash(PasswordHasher.hash("secret"));
+        userRepository.save(user);
+
+        login("elsewhere", "secret");
+    }
+
+    @Test
+    void usersCannotPromoteThemselvesOrTouchOthers() throws Exception {
+        long aliceId = create("alice");
+        long bobId = create("bob");
+        String alice = login("alice", "secret");
+
+        mockMvc.perform(put("/api/users/{id}", aliceId).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + alice)
+                        .content(update("alice", "ADMIN")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(put("/api/users/{id}", aliceId).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + alice)
+                        .content(update("alice", "USER")))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/api/users/{id}", bobId).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + alice)
+                        .content(update("bob", "USER")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/users/{id}", bobId)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + alice))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(put("/api/users/{id}", bobId).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                        .content(update("bob", "ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.role").value("ADMIN"));
+        assertEquals(UserRole.ADMIN, userRepository.findById(bobId).orElseThrow().getRole());
+    }
+
+    @Test
+    void roleChangesEndEarlierSessions() throws Exception {
+        long carolId = create("carol");
+        String carol = login("carol", "secret");
+
+        mockMvc.perform(put("/api/users/{id}", carolId).contentType(MediaType.APPLICATION_JSON)
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + adminToken)
+                        .content(update("carol", "ADMIN")))
+                .andExpect(status().isOk());
+        assertNotNull(userRepository.findById(carolId).orElseThrow().getTokensNotBefore());
+        mockMvc.perform(get("/api/users/{id}", carolId).header(HttpHeaders.AUTHORIZATION, "Bearer " + carol))
+                .andExpect(status().isUnauthorized());
+
+        String promoted = login("carol", "secret");
+        mockMvc.perform(get("/api/users/page/0").header(HttpHeaders.AUTHORIZATION, "Bearer " + promoted))
+                .andExpect(status().isOk());
+    }
+
+    private long create(String username) throws Exception {
+        String body = mockMvc.perform(post("/api/users").contentType(MediaType.APPLICATION_JSON)
+                        .content(signUp(username, "USER", "secret")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("id").asLong();
+    }
+
+    private String login(String username, String password) throws Exception {
+        String body = mockMvc.perform(post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("username", username, "password", password))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        JsonNode json = objectMapper.readTree(body);
+        return json.get("token").asText();
+    }
+
+    private void bootstrap(String username, String password) {
+        new AdminBootstrap(userRepository, uniqueNameFilter, userSearchIndex, username, password, true) {{
+            init();
+        }};
+    }
+
+    private String signUp(String username, String role, String password) throws Exception {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("username", username);
+        body.put("email", username + "@example.com");
+        body.put("firstName", username);
+        body.put("lastName", username);
+        body.put("role", role);
+        body.put("password", password);
+        return objectMapper.writeValueAsString(body);
+    }
+
+    private String update(String username, String role) throws Exception {
+        return signUp(username, role, null);
+    }
+}
@@ -0,0 +1,296 @@
+package pw.react.backend.dao;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+import pw.react.backend.models.Reservation;
+import pw.react.backend.models.User;
+import pw.react.backend.specifications.UserSpecification;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// Calls the hot repository methods against a migrated MySQL schema, records the SQL and bind values
+/// Hibernate actually sends, and checks that EXPLAIN of that statement picks the index added for it.
+/// The seed is large and skewed enough that a scan is never the cheaper plan.
+/// Needs a throwaway database: PARKLY_TEST_MYSQL_URL, PARKLY_TEST_MYSQL_USERNAME, PARKLY_TEST_MYSQL_PASSWORD.
+@EnabledIfEnvironmentVariable(named = "PARKLY_TEST_MYSQL_URL", matches = ".+")
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.MySQLDialect",
+        "spring.jpa.hibernate.ddl-auto=none",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryIndexUsageTest {
+
+    private static final int AREAS = 20;
+    private static final int SPOTS_PER_AREA = 250;
+    private static final int USERS = 500;
+    /// reservations are spread over the first RESERVING_USERS users, one per spot
+    private static final int RESERVING_USERS = 50;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+
+    private static final List<Recorded> recorded = new CopyOnWriteArrayList<>();
+
+    @DynamicPropertySource
+    static void mysql(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> System.getenv("PARKLY_TEST_MYSQL_URL"));
+        registry.add("spring.datasource.username", () -> System.getenv("PARKLY_TEST_MYSQL_USERNAME"));
+        registry.add("spring.datasource.password", () -> System.getenv("PARKLY_TEST_MYSQL_PASSWORD"));
+    }
+
+    @TestConfiguration
+    static class RecordingConfig {
+        @Bean
+        static BeanPostProcessor recordingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource && !(bean instanceof RecordingDataSource)
+                            ? new RecordingDataSource(dataSource)
+                            : bean;
+                }
+            };
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ParkingAreaRepository parkingAreaRepository;
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @BeforeAll
+    void seed() {
+        deleteSeed();
+        List<Object[]> areas = new ArrayList<>();
+        for (int a = 1; a <= AREAS; a++) {
+            areas.add(new Object[] {-a, "explain-area-" + a});
+        }
+        jdbcTemplate.batchUpdate("insert into parking_area (id, name, address, city) values (?, ?, 'a', 'c')", areas);
+
+        List<Object[]> spots = new ArrayList<>();
+        for (int s = 1; s <= AREAS * SPOTS_PER_AREA; s++) {
+            spots.add(new Object[] {-s, "A" + s, -(1 + (s - 1) / SPOTS_PER_AREA), s % 10 == 0});
+        }
+        jdbcTemplate.batchUpdate("insert into parking_spot (id, spot_number, parking_area_id, is_available) values (?, ?, ?, ?)", spots);
+
+        List<Object[]> users = new ArrayList<>();
+        for (int u = 1; u <= USERS; u++) {
+            String lastName = u == 1 ? "Kowalski" : "Nowak" + u;
+            users.add(new Object[] {-u, "explain-user-" + u, lastName, lastName.toLowerCase(Locale.ROOT)});
+        }
+        jdbcTemplate.batchUpdate("insert into `user` (id, username, email, first_name, last_name, role, first_name_search, last_name_search) "
+                + "values (?, ?, 'e', 'f', ?, 0, 'f', ?)", users);
+
+        List<Object[]> reservations = new ArrayList<>();
+        for (int r = 1; r <= AREAS * SPOTS_PER_AREA; r++) {
+            LocalDateTime start = START.plusHours(r);
+            reservations.add(new Object[] {-r, -r, -(1 + (r - 1) % RESERVING_USERS),
+                    Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(2)), Timestamp.valueOf(START)});
+        }
+        jdbcTemplate.batchUpdate("insert into reservation (id, parking_spot_id, user_id, start_time, end_time, created_at) "
+                + "values (?, ?, ?, ?, ?, ?)", reservations);
+
+        jdbcTemplate.queryForList("analyze table parking_area, parking_spot, `user`, reservation");
+    }
+
+    @AfterAll
+    void deleteSeed() {
+        jdbcTemplate.update("delete from reservation where id < 0");
+        jdbcTemplate.update("delete from parking_spot where id < 0");
+        jdbcTemplate.update("delete from parking_area where id < 0");
+        jdbcTemplate.update("delete from `user` where id < 0");
+    }
+
+    @Test
+    void findByUsernameUsesUniqueIndex() throws SQLException {
+        assertUsesIndex(record(() -> userRepository.findByUsername("explain-user-7")), "ux_user_username");
+    }
+
+    @Test
+    void existsByUsernameUsesUniqueIndex() throws SQLException {
+        assertUsesIndex(record(() -> userRepository.existsByUsername("explain-user-8")), "ux_user_username");
+    }
+
+    @Test
+    void userNamePrefixSearchUsesSearchColumnIndex() throws SQLException {
+        assertUsesIndex(record(() -> userRepository.findAll(UserSpecification.hasLastName("kowal"), PageRequest.of(0, 10))),
+                "ix_user_last_name_search");
+    }
+
+    @Test
+    void existsByNameUsesUniqueIndex() throws SQLException {
+        assertUsesIndex(record(() -> parkingAreaRepository.existsByName("explain-area-3")), "ux_parking_area_name");
+    }
+
+    @Test
+    void existsByParkingAreaAndSpotNumberUsesUniqueIndex() throws SQLException {
+        ParkingArea area = parkingAreaRepository.findById(-1L).orElseThrow();
+        assertUsesIndex(record(() -> parkingSpotRepository.existsByParkingAreaAndSpotNumber(area, "A1")),
+                "ux_parking_spot_area_number");
+    }
+
+    @Test
+    void availableSpotsOfAreaUseCompositeIndex() throws SQLException {
+        assertUsesIndex(record(() -> parkingSpotRepository.findParkingSpotsByParkingAreaIdAndIsAvailableTrue(-2L)),
+                "ix_parking_spot_area_available");
+    }
+
+    @Test
+    void freeSpotCountsUseCompositeIndex() throws SQLException {
+        assertUsesIndex(record(parkingSpotRepository::countAvailableSpotsGroupedByParkingArea), "ix_parking_spot_area_available");
+    }
+
+    @Test
+    void reservationsOfUserUseUserStartIndex() throws SQLException {
+        assertUsesIndex(record(() -> reservationRepository.findByUserId(-3L,
+                        PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "startTime")))),
+                "ix_reservation_user_start");
+    }
+
+    @Test
+    void duplicateReservationCheckUsesSpotPeriodIndex() throws SQLException {
+        Reservation reservation = reservationRepository.findById(-1L).orElseThrow();
+        User user = reservation.getUser();
+        ParkingSpot spot = reservation.getParkingSpot();
+        assertUsesIndex(record(() -> reservationRepository.existsByUserAndParkingSpotAndStartTimeAndEndTime(
+                        user, spot, reservation.getStartTime(), reservation.getEndTime())),
+                "ix_reservation_spot_period");
+    }
+
+    @Test
+    void reservationsOfSpotUseSpotPeriodIndex() throws SQLException {
+        ParkingSpot spot = parkingSpotRepository.findById(-4L).orElseThrow();
+        assertUsesIndex(record(() -> reservationRepository.findByParkingSpot(spot)), "ix_reservation_spot_period");
+    }
+
+    /// The first select the call sends, with its bind values.
+    private static Recorded record(Runnable call) {
+        recorded.clear();
+        call.run();
+        return recorded.stream()
+                .filter(r -> r.sql().stripLeading().toLowerCase(Locale.ROOT).startsWith("select"))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("The repository call sent no select"));
+    }
+
+    /// Joined fetches add rows for other tables, so one of the EXPLAIN rows has to use the index.
+    private void assertUsesIndex(Recorded statement, String index) throws SQLException {
+        List<String> keys = new ArrayList<>();
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection();
+             PreparedStatement explain = connection.prepareStatement("explain " + statement.sql())) {
+            statement.bindTo(explain);
+            try (ResultSet rs = explain.executeQuery()) {
+                while (rs.next()) {
+                    keys.add(rs.getString("key"));
+                }
+            }
+        }
+        assertFalse(keys.isEmpty(), "EXPLAIN returned no rows for: " + statement.sql());
+        assertTrue(keys.contains(index), "Expected key " + index + " for [" + statement.sql() + "], got " + keys);
+    }
+
+    private record Recorded(String sql, List<Bind> binds) {
+        void bindTo(PreparedStatement target) throws SQLException {
+            for (Bind bind : binds) {
+                try {
+                    bind.setter().invoke(target, bind.args());
+                } catch (ReflectiveOperationException e) {
+                    throw new SQLException("Could not replay " + bind.setter().getName(), e);
+                }
+            }
+        }
+    }
+
+    private record Bind(Method setter, Object[] args) { }
+
+    /// Records every prepared statement that gets executed, with the `set*(index, value)` calls made on it.
+    private static class RecordingDataSource extends DelegatingDataSource {
+
+        RecordingDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return connection(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return connection(super.getConnection(username, password));
+        }
+
+        private static Connection connection(Connection target) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                Object result = invoke(target, method, args);
+                if (result instanceof PreparedStatement statement && method.getName().equals("prepareStatement")) {
+                    return statement((String) args[0], statement);
+                }
+                return result;
+            };
+            return (Connection) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                    new Class<?>[] {Connection.class}, handler);
+        }
+
+        private static PreparedStatement statement(String sql, PreparedStatement target) {
+            Recorded statement = new Recorded(sql, new ArrayList<>());
+            InvocationHandler handler = (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    statement.binds().add(new Bind(method, args.clone()));
+                } else if (name.startsWith("execute") && (args == null || args.length == 0)) {
+                    recorded.add(statement);
+                }
+                return invoke(target, method, args);
+            };
+            return (PreparedStatement) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(),
+                    new Class<?>[] {PreparedStatement.class}, handler);
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package pw.react.backend.load;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/// Latencies of one load run, per operation. Every worker records into its own Recorder, so the
+/// measured path takes no lock; the recorders are merged once the run is over. Samples are kept
+/// exactly (8 bytes each), so the percentiles are exact too.
+class LoadReport {
+
+    static final class Recorder {
+        private final Map<String, Samples> samples = new TreeMap<>();
+
+        void record(String operation, long nanos, boolean ok) {
+            samples.computeIfAbsent(operation, k -> new Samples()).add(nanos, ok);
+        }
+    }
+
+    private static final class Samples {
+        private long[] nanos = new long[1024];
+        private int size;
+        private long errors;
+
+        void add(long value, boolean ok) {
+            if (size == nanos.length) {
+                nanos = Arrays.copyOf(nanos, size * 2);
+            }
+            nanos[size++] = value;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (size + other.size > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.nanos, 0, nanos, size, other.size);
+            size += other.size;
+            errors += other.errors;
+        }
+    }
+
+    private final Map<String, Samples> merged = new TreeMap<>();
+    private final double seconds;
+
+    LoadReport(Iterable<Recorder> recorders, double seconds) {
+        this.seconds = seconds;
+        for (Recorder recorder : recorders) {
+            recorder.samples.forEach((operation, samples) -> merged.computeIfAbsent(operation, k -> new Samples()).addAll(samples));
+        }
+        merged.values().forEach(s -> Arrays.sort(s.nanos, 0, s.size));
+    }
+
+    long requests() {
+        return merged.values().stream().mapToLong(s -> s.size).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(String.format(Locale.ROOT, "%-10s %10s %8s %10s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        Samples all = new Samples();
+        merged.forEach((operation, samples) -> {
+            line(sb, operation, samples);
+            all.addAll(samples);
+        });
+        Arrays.sort(all.nanos, 0, all.size);
+        line(sb, "total", all);
+        return sb.toString();
+    }
+
+    private void line(StringBuilder sb, String operation, Samples samples) {
+        sb.append(String.format(Locale.ROOT, "%-10s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f%n", operation, samples.size,
+                samples.errors, samples.size / seconds, percentile(samples, 0.50), percentile(samples, 0.99),
+                percentile(samples, 0.999), percentile(samples, 1.0)));
+    }
+
+    private static double percentile(Samples samples, double p) {
+        if (samples.size == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * samples.size) - 1;
+        return samples.nanos[Math.max(0, index)] / 1e6;
+    }
+}
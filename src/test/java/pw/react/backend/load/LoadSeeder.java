@@ -0,0 +1,88 @@
+package pw.react.backend.load;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import pw.react.backend.utils.TrigramIndex;
+import pw.react.backend.utils.UserRole;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/// Fills an empty schema with JDBC batch inserts and explicit ids (1..n per table), then moves the
+/// identity columns past them so rows created through the API get fresh ids. H2 syntax.
+/// Areas are spread over a 0.5° square around central Warsaw; seeded reservations lie in the past
+/// and every spot is left available, so booking starts from a clean state.
+class LoadSeeder {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadSeeder.class);
+    private static final int BATCH = 10_000;
+    private static final String[] CITIES = {"Warsaw", "Krakow", "Gdansk", "Wroclaw", "Poznan", "Lodz"};
+    private static final String[] FIRST_NAMES = {"Anna", "Jan", "Maria", "Piotr", "Katarzyna", "Tomasz", "Agnieszka", "Pawel"};
+    private static final String[] LAST_NAMES = {"Nowak", "Kowalski", "Wisniewski", "Wojcik", "Kaminski", "Lewandowski", "Zielinski"};
+    static final double LATITUDE = 52.2297;
+    static final double LONGITUDE = 21.0122;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    LoadSeeder(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    void seed(int areas, int spotsPerArea, int users, int reservations) {
+        long start = System.nanoTime();
+        insert("insert into parking_area (id, name, address, city, hourly_rate, latitude, longitude) values (?, ?, ?, ?, ?, ?, ?)",
+                areas, i -> new Object[]{i, "Area " + i, "Street " + i, CITIES[(int) (i % CITIES.length)], BigDecimal.valueOf(5 + i % 20),
+                        BigDecimal.valueOf(LATITUDE + random.nextDouble() / 2 - 0.25), BigDecimal.valueOf(LONGITUDE + random.nextDouble() / 2 - 0.25)});
+        long spots = (long) areas * spotsPerArea;
+        insert("insert into parking_spot (id, spot_number, parking_area_id, is_available) values (?, ?, ?, true)",
+                spots, i -> new Object[]{i, "S" + ((i - 1) % spotsPerArea), (i - 1) / spotsPerArea + 1});
+        insert("insert into user (id, username, email, first_name, last_name, first_name_search, last_name_search, role) values (?, ?, ?, ?, ?, ?, ?, ?)",
+                users, i -> {
+                    String firstName = FIRST_NAMES[(int) (i % FIRST_NAMES.length)];
+                    String lastName = LAST_NAMES[(int) (i / FIRST_NAMES.length % LAST_NAMES.length)] + i;
+                    return new Object[]{i, "user" + i, "user" + i + "@example.com", firstName, lastName,
+                            TrigramIndex.normalize(firstName), TrigramIndex.normalize(lastName), UserRole.USER.ordinal()};
+                });
+        LocalDateTime origin = LocalDateTime.now().minusYears(2);
+        insert("insert into reservation (id, parking_spot_id, user_id, start_time, end_time, total_cost, created_at) values (?, ?, ?, ?, ?, ?, ?)",
+                reservations, i -> {
+                    LocalDateTime startTime = origin.plusMinutes(random.nextInt(60 * 24 * 365));
+                    return new Object[]{i, 1 + random.nextLong(spots), 1 + random.nextLong(users), Timestamp.valueOf(startTime),
+                            Timestamp.valueOf(startTime.plusHours(1 + random.nextInt(8))), BigDecimal.valueOf(10 + random.nextInt(90)),
+                            Timestamp.valueOf(startTime.minusDays(1))};
+                });
+
+        restartIdentity("parking_area", areas);
+        restartIdentity("parking_spot", spots);
+        restartIdentity("user", users);
+        restartIdentity("reservation", reservations);
+        log.info("Seeded {} areas, {} spots, {} users and {} reservations in {} s", areas, spots, users, reservations,
+                (System.nanoTime() - start) / 1_000_000_000);
+    }
+
+    @FunctionalInterface
+    private interface RowFactory {
+        Object[] row(long id);
+    }
+
+    private void insert(String sql, long rows, RowFactory factory) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (long id = 1; id <= rows; id++) {
+            batch.add(factory.row(id));
+            if (batch.size() == BATCH || id == rows) {
+                jdbcTemplate.batchUpdate(sql, batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void restartIdentity(String table, long rows) {
+        jdbcTemplate.execute("alter table " + table + " alter column id restart with " + (rows + 1));
+    }
+}
@@ -0,0 +1,239 @@
+package pw.react.backend.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import pw.react.backend.services.CarlyStub;
+import pw.react.backend.services.InMemoryIndexes;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// End-to-end load run: the application on H2 (MySQL mode) seeded with JDBC, Carly replaced by CarlyStub,
+/// and `concurrency` workers each looping over a weighted mix of scripted operations for `duration`.
+/// Throughput and p50/p99/p999 per operation are logged and written to target/load-report-{platform,virtual}.txt.
+/// Run with `mvn -Pload test`; every knob below is a system property, e.g. `-Dparkly.load.reservations=5000000`.
+/// `-Dparkly.load.virtual-threads=true` runs the server with `spring.threads.virtual.enabled` (JDK 21).
+/// `mvn -Pload,java21 test` on a JDK 21 runs both modes back to back and writes both reports to target/load-comparison.txt;
+/// virtual threads only pay off once the workers outnumber Tomcat's pool, e.g. `-Dserver.tomcat.threads.max=20`.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:parkly-load;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1",
+        "parkly.query-detection.enabled=false"
+})
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+@EnabledIfSystemProperty(named = "parkly.load.enabled", matches = "true")
+class LoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+    private static final int AREAS = Integer.getInteger("parkly.load.areas", 2_000);
+    private static final int SPOTS_PER_AREA = Integer.getInteger("parkly.load.spots-per-area", 50);
+    private static final int USERS = Integer.getInteger("parkly.load.users", 100_000);
+    private static final int RESERVATIONS = Integer.getInteger("parkly.load.reservations", 1_000_000);
+    private static final int CARS = Integer.getInteger("parkly.load.cars", 500);
+    private static final int CONCURRENCY = Integer.getInteger("parkly.load.concurrency", 32);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("parkly.load.warmup", "PT15S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("parkly.load.duration", "PT60S"));
+    private static final Duration CARLY_LATENCY = Duration.parse(System.getProperty("parkly.load.carly-latency", "PT0.05S"));
+    private static final double CARLY_FAILURE_RATE = Double.parseDouble(System.getProperty("parkly.load.carly-failure-rate", "0.01"));
+    /// operation:weight pairs
+    private static final String MIX = System.getProperty("parkly.load.mix", "search:35,near:15,cars:5,book:15,cancel:10,list:20");
+    private static final boolean VIRTUAL_THREADS = Boolean.getBoolean("parkly.load.virtual-threads");
+
+    private static CarlyStub carly;
+
+    @DynamicPropertySource
+    static void carlyStub(DynamicPropertyRegistry registry) throws IOException {
+        carly = new CarlyStub(CARLY_LATENCY, CARLY_FAILURE_RATE);
+        registry.add("CARLY_HOSTNAME", carly::url);
+        registry.add("spring.threads.virtual.enabled", () -> VIRTUAL_THREADS);
+    }
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ApplicationContext context;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Queue<Long> booked = new ConcurrentLinkedQueue<>();
+    private String[] operations;
+
+    @BeforeAll
+    void seed() {
+        if (VIRTUAL_THREADS) {
+            assertTrue(Threading.VIRTUAL.isActive(context.getEnvironment()),
+                    "Virtual threads need a JDK 21 runtime, run with -Pload,java21");
+        }
+        new LoadSeeder(jdbcTemplate).seed(AREAS, SPOTS_PER_AREA, USERS, RESERVATIONS);
+        InMemoryIndexes.reload(context);
+        carly.setCars(fleet());
+
+        List<String> weighted = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weighted.addAll(Collections.nCopies(Integer.parseInt(parts[1]), parts[0]));
+        }
+        operations = weighted.toArray(String[]::new);
+    }
+
+    @AfterAll
+    void stopCarly() {
+        carly.close();
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        log.info("Load: {} threads, {} workers, mix {}, {} warmup, {} measured, Carly {} latency / {} failures",
+                mode(VIRTUAL_THREADS), CONCURRENCY, MIX, WARMUP, DURATION, CARLY_LATENCY, CARLY_FAILURE_RATE);
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long measureUntil = measureFrom + DURATION.toNanos();
+
+        ExecutorService workers = Executors.newFixedThreadPool(CONCURRENCY);
+        List<LoadReport.Recorder> recorders = new ArrayList<>();
+        List<Future<?>> running = new ArrayList<>();
+        for (int i = 0; i < CONCURRENCY; i++) {
+            LoadReport.Recorder recorder = new LoadReport.Recorder();
+            recorders.add(recorder);
+            running.add(workers.submit(() -> work(recorder, measureFrom, measureUntil)));
+        }
+        for (Future<?> worker : running) {
+            worker.get();
+        }
+        workers.shutdown();
+
+        LoadReport report = new LoadReport(recorders, DURATION.toNanos() / 1e9);
+        log.info("Load report ({} threads):\n{}", mode(VIRTUAL_THREADS), report);
+        Files.writeString(report(VIRTUAL_THREADS), report.toString());
+        compareWithOtherMode();
+        assertTrue(report.requests() > 0);
+    }
+
+    /// Both reports side by side once the run of the other thread mode has left its report behind.
+    private static void compareWithOtherMode() throws IOException {
+        Path platform = report(false);
+        Path virtual = report(true);
+        if (!Files.exists(platform) || !Files.exists(virtual)) {
+            return;
+        }
+        String comparison = "Platform threads:\n" + Files.readString(platform) + "\nVirtual threads:\n" + Files.readString(virtual);
+        log.info("Load comparison:\n{}", comparison);
+        Files.writeString(Path.of("target", "load-comparison.txt"), comparison);
+    }
+
+    private static Path report(boolean virtualThreads) {
+        return Path.of("target", "load-report-" + mode(virtualThreads) + ".txt");
+    }
+
+    private static String mode(boolean virtualThreads) {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private Void work(LoadReport.Recorder recorder, long measureFrom, long measureUntil) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < measureUntil) {
+            String operation = operations[random.nextInt(operations.length)];
+            boolean ok;
+            try {
+                ok = run(operation, random);
+            } catch (IOException e) {
+                ok = false;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            if (now >= measureFrom) {
+                recorder.record(operation, System.nanoTime() - now, ok);
+            }
+        }
+        return null;
+    }
+
+    /// False for transport errors and 5xx; 4xx (e.g. booking a spot that was just taken) is a valid answer under load.
+    private boolean run(String operation, ThreadLocalRandom random) throws IOException, InterruptedException {
+        return switch (operation) {
+            case "search" -> get("/api/parking-areas/page/0?size=20&searchQueryParameter=city&searchQuery=" + (random.nextBoolean() ? "war" : "kra")).statusCode() < 500;
+            case "near" -> get(String.format(Locale.ROOT, "/api/parking-areas/near?lat=%.4f&long=%.4f&radiusKm=3",
+                    LoadSeeder.LATITUDE + random.nextDouble(-0.2, 0.2), LoadSeeder.LONGITUDE + random.nextDouble(-0.2, 0.2))).statusCode() < 500;
+            case "cars" -> get(String.format(Locale.ROOT, "/api/cars/search/0?size=10&lat=%.4f&long=%.4f",
+                    LoadSeeder.LATITUDE, LoadSeeder.LONGITUDE)).statusCode() < 500;
+            case "book" -> book(random);
+            case "cancel" -> cancel();
+            case "list" -> get("/api/reservations/user/" + (1 + random.nextInt(USERS)) + "/page/0?size=20").statusCode() < 500;
+            default -> throw new IllegalArgumentException("Unknown operation " + operation);
+        };
+    }
+
+    private boolean book(ThreadLocalRandom random) throws IOException, InterruptedException {
+        LocalDateTime start = LocalDateTime.now().plusDays(1 + random.nextInt(30)).withNano(0);
+        String body = String.format(Locale.ROOT, "{\"parkingSpotId\": %d, \"userId\": %d, \"startTime\": \"%s\", \"endTime\": \"%s\"}",
+                1 + random.nextLong((long) AREAS * SPOTS_PER_AREA), 1 + random.nextInt(USERS), start, start.plusHours(2));
+        HttpResponse<String> response = httpClient.send(request("/api/reservations")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+            booked.add(objectMapper.readTree(response.body()).get("id").asLong());
+        }
+        return response.statusCode() < 500;
+    }
+
+    private boolean cancel() throws IOException, InterruptedException {
+        Long id = booked.poll();
+        if (id == null) {
+            return get("/api/reservations/page/0?size=20").statusCode() < 500;
+        }
+        return httpClient.send(request("/api/reservations/" + id).DELETE().build(), HttpResponse.BodyHandlers.discarding())
+                .statusCode() < 500;
+    }
+
+    private HttpResponse<Void> get(String path) throws IOException, InterruptedException {
+        return httpClient.send(request(path).GET().build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30));
+    }
+
+    private String fleet() {
+        StringJoiner cars = new StringJoiner(",", "{\"content\": [", "], \"page\": null}");
+        Random random = new Random(7);
+        for (int i = 0; i < CARS; i++) {
+            cars.add(String.format(Locale.ROOT, "{\"id\": \"car-%d\", \"imageUrl\": null, "
+                            + "\"model\": {\"id\": \"m%d\", \"brandName\": \"Brand\", \"name\": \"Model %d\", \"productionYear\": 2020, "
+                            + "\"fuelType\": \"PETROL\", \"fuelCapacity\": 50, \"seatCount\": 5, \"doorCount\": 4, \"dailyRate\": 120.0}, "
+                            + "\"location\": {\"id\": \"l%d\", \"fullAddress\": \"Street %d\", \"latitude\": %.5f, \"longitude\": %.5f}}",
+                    i, i % 20, i % 20, i, i, LoadSeeder.LATITUDE + random.nextDouble() / 2 - 0.25, LoadSeeder.LONGITUDE + random.nextDouble() / 2 - 0.25));
+        }
+        return cars.toString();
+    }
+}
@@ -0,0 +1,69 @@
+package pw.react.backend.services;
+
+import org.junit.jupiter.api.Test;
+import pw.react.backend.dto.ReturnParkingSpotDTO;
+import pw.react.backend.exceptions.ModelValidationException;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AvailableSpotsCacheTest {
+
+    private final AvailableSpotsCache cache = new AvailableSpotsCache();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void unknownAreasLeaveNothingBehind() {
+        for (long id = 1; id <= 1000; id++) {
+            long areaId = id;
+            assertThrows(ModelValidationException.class, () -> cache.get(areaId, () -> {
+                throw new ModelValidationException("Parking area not found");
+            }));
+            cache.invalidate(id);
+        }
+        assertEquals(0, cache.trackedAreas());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void servesUntilInvalidatedAndForgetsDeletedAreas() {
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        assertEquals(1, loads.get());
+
+        cache.invalidate(1L);
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+
+        cache.onParkingAreaDeleted(new ParkingAreaDeletedEvent(1L));
+        assertEquals(0, cache.trackedAreas());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void aLoadRacingWithAChangeIsNotCached() {
+        cache.get(1L, () -> {
+            cache.invalidate(1L);
+            return load();
+        });
+        cache.get(1L, this::load);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void aLoadRacingWithTheDeletionIsNotCached() {
+        cache.get(1L, () -> {
+            cache.remove(1L);
+            return load();
+        });
+        assertEquals(0, cache.size());
+    }
+
+    private List<ReturnParkingSpotDTO> load() {
+        loads.incrementAndGet();
+        return List.of();
+    }
+}
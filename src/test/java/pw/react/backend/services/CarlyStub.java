@@ -0,0 +1,78 @@
+package pw.react.backend.services;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/// Local stand-in for Carly: answers every call after `latency`, failing a `failureRate` share of them with 503.
+/// `/cars` returns `cars` (a CarsDTO JSON body), `/customers/external` and `/rentals/` return 201.
+public class CarlyStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private volatile Duration latency;
+    private volatile double failureRate;
+    private volatile String cars = "{\"content\": [], \"page\": null}";
+
+    public CarlyStub(Duration latency, double failureRate) throws IOException {
+        this.latency = latency;
+        this.failureRate = failureRate;
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/cars", exchange -> respond(exchange, 200, cars));
+        server.createContext("/customers/external", exchange -> respond(exchange, 201, "{}"));
+        server.createContext("/rentals/", exchange -> respond(exchange, 201, "{}"));
+        server.start();
+    }
+
+    public String url() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void setLatency(Duration latency) {
+        this.latency = latency;
+    }
+
+    public void setFailureRate(double failureRate) {
+        this.failureRate = failureRate;
+    }
+
+    public void setCars(String carsJson) {
+        this.cars = carsJson;
+    }
+
+    private void respond(HttpExchange exchange, int status, String body) throws IOException {
+        try (exchange) {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (ThreadLocalRandom.current().nextDouble() < failureRate) {
+                status = 503;
+                body = "{}";
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
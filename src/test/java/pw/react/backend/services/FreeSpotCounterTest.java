@@ -0,0 +1,82 @@
+package pw.react.backend.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import pw.react.backend.dao.ParkingSpotRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FreeSpotCounterTest {
+
+    private final ParkingSpotRepository parkingSpotRepository = mock(ParkingSpotRepository.class);
+    private final FreeSpotCounter counter = new FreeSpotCounter(parkingSpotRepository);
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void repairsDriftAndIsIdempotent() {
+        databaseHas(5);
+        counter.init();
+        counter.adjust(1L, 2);
+        assertEquals(7, counter.get(1L));
+
+        assertEquals(1, counter.reconcile());
+        assertEquals(5, counter.get(1L));
+        assertEquals(0, counter.reconcile());
+        assertEquals(5, counter.get(1L));
+    }
+
+    /// The transaction has committed, so the database already counts the freed spot,
+    /// but its afterCommit adjustment only runs after the reconciliation.
+    @Test
+    void doesNotCountACommittedChangeTwice() {
+        databaseHas(5);
+        counter.init();
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.adjust(1L, 1);
+        List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+
+        databaseHas(6);
+        assertEquals(0, counter.reconcile());
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertEquals(6, counter.get(1L));
+        assertEquals(0, counter.reconcile());
+        assertEquals(6, counter.get(1L));
+    }
+
+    @Test
+    void rolledBackAdjustmentsAreDropped() {
+        databaseHas(5);
+        counter.init();
+
+        TransactionSynchronizationManager.initSynchronization();
+        counter.adjust(1L, -1);
+        List<TransactionSynchronization> synchronizations = new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertEquals(5, counter.get(1L));
+        assertEquals(0, counter.reconcile());
+    }
+
+    private void databaseHas(long freeSpots) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[] {1L, freeSpots});
+        when(parkingSpotRepository.countAvailableSpotsGroupedByParkingArea()).thenReturn(rows);
+    }
+}
@@ -0,0 +1,55 @@
+package pw.react.backend.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.ParkingSpotRepository;
+import pw.react.backend.models.BackgroundJob;
+import pw.react.backend.models.ParkingArea;
+import pw.react.backend.models.ParkingSpot;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ImportMainServiceTest {
+
+    @Autowired
+    private ImportService importService;
+    @Autowired
+    private ParkingAreaRepository parkingAreaRepository;
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Test
+    void reimportDoesNotFreeReservedSpots() throws Exception {
+        ParkingArea area = new ParkingArea();
+        area.setName("Import area");
+        area.setAddress("Import street");
+        area.setCity("Warsaw");
+        area.setHourlyRate(BigDecimal.TEN);
+        area = parkingAreaRepository.save(area);
+        ParkingSpot reserved = new ParkingSpot();
+        reserved.setSpotNumber("I1");
+        reserved.setParkingArea(area);
+        reserved.setIsAvailable(false);
+        reserved = parkingSpotRepository.save(reserved);
+
+        String csv = "parkingArea,spotNumber,isAvailable\nImport area,I1,true\nImport area,I2,true\n";
+        BackgroundJob job = importService.importParkingSpots(
+                new MockMultipartFile("file", "spots.csv", "text/csv", csv.getBytes(StandardCharsets.UTF_8)), null, null);
+        for (int i = 0; i < 100 && !job.isFinished(); i++) {
+            Thread.sleep(100);
+        }
+
+        assertEquals(BackgroundJob.Status.COMPLETED, job.getStatus(), job.getMessage());
+        assertFalse(parkingSpotRepository.findById(reserved.getId()).orElseThrow().getIsAvailable());
+        assertTrue(parkingSpotRepository.findBySpotNumberAndParkingArea("I2", area).getIsAvailable());
+    }
+}
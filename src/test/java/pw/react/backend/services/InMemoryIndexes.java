@@ -0,0 +1,20 @@
+package pw.react.backend.services;
+
+import org.springframework.context.ApplicationContext;
+
+/// Reloads the in-memory indexes and counters of a running context from the database,
+/// for tests that fill the tables behind the application's back (plain JDBC seeding).
+/// Only valid for indexes that were empty before, the loaders add to what is there.
+public final class InMemoryIndexes {
+
+    private InMemoryIndexes() {
+    }
+
+    public static void reload(ApplicationContext context) {
+        context.getBean(ParkingAreaGeoIndex.class).init();
+        context.getBean(ParkingAreaSearchIndex.class).init();
+        context.getBean(UserSearchIndex.class).init();
+        context.getBean(UniqueNameFilter.class).rebuild();
+        context.getBean(FreeSpotCounter.class).reconcile();
+    }
+}
@@ -0,0 +1,166 @@
+package pw.react.backend.services;
+
+import org.junit.jupiter.api.Test;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.utils.Utils;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/// nearest and within checked against a brute-force haversine sort over the same points.
+class ParkingAreaGeoIndexTest {
+
+    private static final double CELL = 0.05;
+
+    private final ParkingAreaGeoIndex index = new ParkingAreaGeoIndex(mock(ParkingAreaRepository.class));
+    private final Map<Long, double[]> points = new HashMap<>();
+    private final Random random = new Random(26);
+
+    @Test
+    void matchesBruteForceAroundACity() {
+        for (int i = 0; i < 3000; i++) {
+            put(52.0 + random.nextDouble() * 0.6, 20.7 + random.nextDouble() * 0.8);
+        }
+        for (int q = 0; q < 200; q++) {
+            double lat = 51.9 + random.nextDouble() * 0.8;
+            double lon = 20.6 + random.nextDouble() * 1.0;
+            for (int limit : new int[] {1, 5, 50}) {
+                assertNearest(lat, lon, limit, id -> true);
+            }
+            for (double radius : new double[] {0.3, 2, 10, 80}) {
+                assertWithin(lat, lon, radius);
+            }
+        }
+    }
+
+    @Test
+    void matchesBruteForceOnCellEdges() {
+        for (int la = 0; la <= 6; la++) {
+            for (int lo = 0; lo <= 6; lo++) {
+                double lat = 52.0 + la * CELL;
+                double lon = 21.0 + lo * CELL;
+                put(lat, lon);
+                put(Math.nextDown(lat), Math.nextDown(lon));
+                put(Math.nextUp(lat), lon);
+            }
+        }
+        for (int la = 0; la <= 6; la++) {
+            for (int lo = 0; lo <= 6; lo++) {
+                double lat = 52.0 + la * CELL;
+                double lon = 21.0 + lo * CELL;
+                for (int limit : new int[] {1, 3, 10, 40}) {
+                    assertNearest(lat, lon, limit, id -> true);
+                    assertNearest(Math.nextDown(lat), Math.nextUp(lon), limit, id -> true);
+                }
+                for (double radius : new double[] {0.0, CELL * 111.195, 7.5}) {
+                    assertWithin(lat, lon, radius);
+                }
+            }
+        }
+    }
+
+    /// Nothing within MAX_RINGS (64 cells, about 3.2 degrees) of the query: the result comes from the full scan.
+    @Test
+    void fallsBackToAFullScanWithoutNeighbours() {
+        put(10.0, 100.0);
+        put(-40.0, -70.0);
+        put(48.0, 2.3);
+        put(40.7, -74.0);
+        for (int i = 0; i < 200; i++) {
+            put(-60 + random.nextDouble() * 120, -170 + random.nextDouble() * 340);
+        }
+        for (int limit : new int[] {1, 2, 10, 300}) {
+            assertNearest(52.23, 21.01, limit, id -> true);
+            assertNearest(0.0, 0.0, limit, id -> true);
+        }
+
+        // one neighbour close by, the rest only reachable through the fallback
+        put(52.231, 21.012);
+        assertNearest(52.23, 21.01, 5, id -> true);
+        assertWithin(52.23, 21.01, 2000);
+    }
+
+    @Test
+    void skipsAreasTheFilterRejects() {
+        for (int i = 0; i < 2000; i++) {
+            put(52.0 + random.nextDouble() * 0.5, 21.0 + random.nextDouble() * 0.5);
+        }
+        double lat = 52.25;
+        double lon = 21.25;
+        Set<Long> closest = new HashSet<>();
+        for (Map.Entry<Long, Double> entry : bruteForce(lat, lon).subList(0, 100)) {
+            closest.add(entry.getKey());
+        }
+        LongPredicate notClosest = id -> !closest.contains(id);
+        for (int limit : new int[] {1, 10, 100}) {
+            assertNearest(lat, lon, limit, notClosest);
+        }
+
+        // rejects everything near, so the answer has to come from far rings or the fallback
+        put(60.0, 30.0);
+        LongPredicate onlyFar = id -> points.get(id)[0] > 55;
+        List<ParkingAreaGeoIndex.Hit> hits = index.nearest(lat, lon, 3, onlyFar);
+        assertEquals(1, hits.size());
+        assertNearest(lat, lon, 3, onlyFar);
+    }
+
+    private void put(double latitude, double longitude) {
+        long id = points.size() + 1L;
+        points.put(id, new double[] {latitude, longitude});
+        index.put(id, BigDecimal.valueOf(latitude), BigDecimal.valueOf(longitude));
+    }
+
+    private void assertNearest(double latitude, double longitude, int limit, LongPredicate filter) {
+        List<Map.Entry<Long, Double>> expected = bruteForce(latitude, longitude).stream()
+                .filter(entry -> filter.test(entry.getKey()))
+                .limit(limit)
+                .toList();
+        List<ParkingAreaGeoIndex.Hit> actual = index.nearest(latitude, longitude, limit, filter);
+        String query = "nearest(" + latitude + ", " + longitude + ", " + limit + ")";
+        assertSameHits(latitude, longitude, expected, actual, query);
+        actual.forEach(hit -> assertTrue(filter.test(hit.parkingAreaId()), query));
+    }
+
+    private void assertWithin(double latitude, double longitude, double radiusKm) {
+        List<Map.Entry<Long, Double>> expected = bruteForce(latitude, longitude).stream()
+                .filter(entry -> entry.getValue() <= radiusKm)
+                .toList();
+        List<ParkingAreaGeoIndex.Hit> actual = index.within(latitude, longitude, radiusKm);
+        String query = "within(" + latitude + ", " + longitude + ", " + radiusKm + ")";
+        assertSameHits(latitude, longitude, expected, actual, query);
+        assertEquals(expected.stream().map(Map.Entry::getKey).collect(Collectors.toSet()),
+                actual.stream().map(ParkingAreaGeoIndex.Hit::parkingAreaId).collect(Collectors.toSet()), query);
+    }
+
+    /// Same distances in the same order; ids may only differ among equally distant areas.
+    private void assertSameHits(double latitude, double longitude, List<Map.Entry<Long, Double>> expected,
+                                List<ParkingAreaGeoIndex.Hit> actual, String query) {
+        assertEquals(expected.size(), actual.size(), query);
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < expected.size(); i++) {
+            ParkingAreaGeoIndex.Hit hit = actual.get(i);
+            assertEquals(expected.get(i).getValue(), hit.distanceKm(), query + " at " + i);
+            assertEquals(distance(latitude, longitude, hit.parkingAreaId()), hit.distanceKm(), query);
+            assertTrue(seen.add(hit.parkingAreaId()), query + " returned " + hit.parkingAreaId() + " twice");
+        }
+    }
+
+    private List<Map.Entry<Long, Double>> bruteForce(double latitude, double longitude) {
+        List<Map.Entry<Long, Double>> all = new ArrayList<>();
+        for (Long id : points.keySet()) {
+            all.add(Map.entry(id, distance(latitude, longitude, id)));
+        }
+        all.sort(Map.Entry.comparingByValue());
+        return all;
+    }
+
+    private double distance(double latitude, double longitude, Long id) {
+        double[] point = points.get(id);
+        return Utils.haversine(latitude, longitude, point[0], point[1]);
+    }
+}
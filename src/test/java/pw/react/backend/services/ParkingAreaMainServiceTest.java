@@ -0,0 +1,79 @@
+package pw.react.backend.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+import pw.react.backend.models.ParkingArea;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ParkingAreaMainServiceTest {
+
+    private static final double LATITUDE = 52.2297;
+    private static final double LONGITUDE = 21.0122;
+
+    @Autowired
+    private ParkingAreaService parkingAreaService;
+    @Autowired
+    private ParkingAreaGeoIndex parkingAreaGeoIndex;
+    @Autowired
+    private ParkingAreaSearchIndex parkingAreaSearchIndex;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void aRolledBackDeleteKeepsTheAreaInTheIndexes() {
+        Long id = create("Rollback area").getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(parkingAreaService.deleteParkingArea(id));
+            assertTrue(indexed(id), "removed before the delete committed");
+            status.setRollbackOnly();
+        });
+
+        assertTrue(indexed(id));
+    }
+
+    @Test
+    void aCommittedDeleteLeavesTheIndexes() {
+        Long id = create("Deleted area").getId();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            assertTrue(parkingAreaService.deleteParkingArea(id));
+            assertTrue(indexed(id));
+        });
+
+        assertFalse(inGeoIndex(id));
+        assertFalse(inSearchIndex(id));
+    }
+
+    private ParkingArea create(String name) {
+        ParkingArea area = new ParkingArea();
+        area.setName(name);
+        area.setAddress(name + " street");
+        area.setCity("Warsaw");
+        area.setHourlyRate(BigDecimal.TEN);
+        area.setLatitude(BigDecimal.valueOf(LATITUDE));
+        area.setLongitude(BigDecimal.valueOf(LONGITUDE));
+        return parkingAreaService.createParkingArea(area);
+    }
+
+    private boolean indexed(Long id) {
+        return inGeoIndex(id) && inSearchIndex(id);
+    }
+
+    private boolean inGeoIndex(Long id) {
+        return parkingAreaGeoIndex.within(LATITUDE, LONGITUDE, 1).stream()
+                .anyMatch(hit -> hit.parkingAreaId().equals(id));
+    }
+
+    private boolean inSearchIndex(Long id) {
+        return parkingAreaSearchIndex.search("Warsaw", "city", false).contains(id);
+    }
+}
@@ -0,0 +1,81 @@
+package pw.react.backend.services;
+
+import org.junit.jupiter.api.Test;
+import pw.react.backend.dao.ParkingAreaRepository;
+import pw.react.backend.dao.UserRepository;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UniqueNameFilterTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final ParkingAreaRepository parkingAreaRepository = mock(ParkingAreaRepository.class);
+    private final UniqueNameFilter filter = new UniqueNameFilter(userRepository, parkingAreaRepository, true, 0.01);
+
+    @Test
+    void foldsCaseAndAccents() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of("Łukasz"));
+        when(parkingAreaRepository.findAllNames()).thenReturn(List.of());
+        filter.init();
+
+        assertTrue(filter.usernames().mightExist("lukasz"));
+        assertFalse(filter.usernames().mightExist("marek"));
+    }
+
+    /// A user created after the rebuild read the table, but before the new filter replaced the old one.
+    @Test
+    void keepsNamesAddedWhileRebuilding() {
+        when(userRepository.findAllUsernames()).thenReturn(List.of("alice"));
+        when(parkingAreaRepository.findAllNames()).thenReturn(List.of());
+        filter.init();
+
+        when(userRepository.findAllUsernames()).thenAnswer(invocation -> {
+            filter.usernames().add("bob");
+            return List.of("alice");
+        });
+        filter.rebuild();
+
+        assertTrue(filter.usernames().mightExist("alice"));
+        assertTrue(filter.usernames().mightExist("bob"));
+    }
+
+    /// A second rebuild waits for the running one instead of reading the tables alongside it.
+    @Test
+    void rebuildsDoNotOverlap() throws Exception {
+        when(parkingAreaRepository.findAllNames()).thenReturn(List.of());
+        CountDownLatch firstReading = new CountDownLatch(1);
+        CountDownLatch releaseFirst = new CountDownLatch(1);
+        AtomicInteger reading = new AtomicInteger();
+        AtomicInteger maxReading = new AtomicInteger();
+        when(userRepository.findAllUsernames()).thenAnswer(invocation -> {
+            maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+            firstReading.countDown();
+            releaseFirst.await(5, TimeUnit.SECONDS);
+            reading.decrementAndGet();
+            return List.of("alice");
+        });
+
+        Thread first = new Thread(filter::rebuild);
+        first.start();
+        assertTrue(firstReading.await(5, TimeUnit.SECONDS));
+        Thread second = new Thread(filter::rebuild);
+        second.start();
+        second.join(200);
+        assertTrue(second.isAlive());
+
+        releaseFirst.countDown();
+        first.join(5000);
+        second.join(5000);
+        assertEquals(1, maxReading.get());
+        assertTrue(filter.usernames().mightExist("alice"));
+    }
+}
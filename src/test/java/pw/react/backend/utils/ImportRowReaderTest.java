@@ -0,0 +1,55 @@
+package pw.react.backend.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ImportRowReaderTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void readsQuotedFieldsAcrossLinesAndAnyLineEnding() throws IOException {
+        try (ImportRowReader reader = open("name,address\r\n\"A, \"\"1\"\"\",\"line\nbreak\"\rB,b\n", ImportRowReader.Format.CSV)) {
+            assertEquals(Map.of("name", "A, \"1\"", "address", "line\nbreak"), reader.next());
+            assertEquals(2, reader.lineNumber());
+            assertEquals(Map.of("name", "B", "address", "b"), reader.next());
+            assertEquals(4, reader.lineNumber());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void unterminatedQuoteDoesNotSwallowTheFile() throws IOException {
+        String line = "x".repeat(1000) + "\n";
+        String csv = "name,address\n\"open," + line.repeat(ImportRowReader.MAX_LINE_LENGTH / line.length() * 3);
+        try (ImportRowReader reader = open(csv, ImportRowReader.Format.CSV)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(e.getMessage().startsWith("Quoted field longer than"));
+        }
+    }
+
+    @Test
+    void overlongLinesAreSkipped() throws IOException {
+        String ndjson = "{\"name\": \"" + "x".repeat(ImportRowReader.MAX_LINE_LENGTH) + "\"}\n{\"name\": \"B\"}\n";
+        try (ImportRowReader reader = open(ndjson, ImportRowReader.Format.NDJSON)) {
+            IllegalArgumentException e = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(e.getMessage().startsWith("Line longer than"));
+            assertEquals(Map.of("name", "B"), reader.next());
+            assertEquals(2, reader.lineNumber());
+            assertNull(reader.next());
+        }
+    }
+
+    private ImportRowReader open(String content, ImportRowReader.Format format) throws IOException {
+        Path file = Files.writeString(dir.resolve("import." + format.name().toLowerCase()), content);
+        return ImportRowReader.open(file, format);
+    }
+}
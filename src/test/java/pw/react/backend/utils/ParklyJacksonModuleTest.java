@@ -0,0 +1,54 @@
+package pw.react.backend.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/// The hand-rolled codecs must produce and accept exactly what JavaTimeModule and Jackson's
+/// BigDecimal handling do, on and off their fast paths.
+class ParklyJacksonModuleTest {
+
+    private final ObjectMapper standard = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+    private final ObjectMapper parkly = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .modulesToInstall(new ParklyJacksonModule()).build();
+
+    @Test
+    void localDateTimesMatchJavaTimeModule() throws Exception {
+        List<LocalDateTime> values = List.of(
+                LocalDateTime.of(2025, 3, 1, 10, 0),
+                LocalDateTime.of(2025, 3, 1, 10, 0, 7),
+                LocalDateTime.of(2025, 12, 31, 23, 59, 59, 500_000_000),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 120_000),
+                LocalDateTime.of(2025, 1, 2, 3, 4, 5, 1),
+                LocalDateTime.of(1, 1, 1, 0, 0),
+                LocalDateTime.of(12345, 6, 7, 8, 9));
+        for (LocalDateTime value : values) {
+            String json = standard.writeValueAsString(value);
+            assertEquals(json, parkly.writeValueAsString(value));
+            assertEquals(value, parkly.readValue(json, LocalDateTime.class));
+        }
+        for (String json : List.of("\"2025-03-01T10:15\"", "\"2025-03-01t10:15:30.1\"")) {
+            assertEquals(standard.readValue(json, LocalDateTime.class), parkly.readValue(json, LocalDateTime.class));
+        }
+    }
+
+    @Test
+    void bigDecimalsMatchJackson() throws Exception {
+        for (String text : List.of("0", "0.00", "12.50", "-0.05", "123456789012345678", "1234567890123456789.5",
+                "0.0000001", "1E+3", "-987654.321")) {
+            BigDecimal value = new BigDecimal(text);
+            String json = standard.writeValueAsString(value);
+            assertEquals(json, parkly.writeValueAsString(value));
+            assertEquals(standard.readValue(json, BigDecimal.class), parkly.readValue(json, BigDecimal.class));
+        }
+    }
+}
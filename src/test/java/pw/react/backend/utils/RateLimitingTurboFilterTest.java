@@ -0,0 +1,120 @@
+package pw.react.backend.utils;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RateLimitingTurboFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final RateLimitingTurboFilter filter = new RateLimitingTurboFilter(now::get);
+    private final LoggerContext context = new LoggerContext();
+    private final ListAppender<ILoggingEvent> events = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        filter.setPrefix("pw.react.backend");
+        filter.setEventsPerSecond(2);
+        filter.setBurst(3);
+        filter.setContext(context);
+        filter.start();
+        context.addTurboFilter(filter);
+
+        events.setContext(context);
+        events.start();
+        logger = context.getLogger("pw.react.backend.test");
+        logger.addAppender(events);
+    }
+
+    @Test
+    void deniesOnceTheBurstIsSpent() {
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+        }
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+        assertEquals(FilterReply.DENY, decide(Level.WARN));
+    }
+
+    @Test
+    void refillsAtTheConfiguredRate() {
+        for (int i = 0; i < 3; i++) {
+            decide(Level.INFO);
+        }
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+
+        advance(499);
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+        advance(1);
+        assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+
+        // never more than the burst, however long the logger was quiet
+        advance(60_000);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.INFO));
+        }
+        assertEquals(FilterReply.DENY, decide(Level.INFO));
+    }
+
+    @Test
+    void errorsAlwaysPass() {
+        for (int i = 0; i < 10; i++) {
+            logger.info("info {}", i);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, decide(Level.ERROR));
+            logger.error("error {}", i);
+        }
+        assertEquals(13, events.list.size());
+        assertEquals(10, events.list.stream().filter(event -> event.getLevel() == Level.ERROR).count());
+    }
+
+    @Test
+    void reportsDroppedEventsBeforeTheNextOneLetThrough() {
+        for (int i = 0; i < 8; i++) {
+            logger.info("event {}", i);
+        }
+        assertEquals(3, events.list.size());
+
+        advance(500);
+        logger.info("after the pause");
+        List<String> messages = events.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(5, messages.size());
+        assertEquals("Dropped 5 log events of this logger over the rate limit of 2.0/s", messages.get(3));
+        assertEquals(Level.WARN, events.list.get(3).getLevel());
+        assertEquals("after the pause", messages.get(4));
+
+        advance(500);
+        logger.info("nothing dropped since");
+        assertEquals(6, events.list.size());
+        assertEquals("nothing dropped since", events.list.get(5).getFormattedMessage());
+    }
+
+    @Test
+    void leavesOtherLoggersAlone() {
+        Logger other = context.getLogger("org.example");
+        for (int i = 0; i < 10; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(null, other, Level.INFO, "event", null, null));
+        }
+    }
+
+    private FilterReply decide(Level level) {
+        return filter.decide(null, logger, level, "event", null, null);
+    }
+
+    private void advance(long millis) {
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(millis));
+    }
+}
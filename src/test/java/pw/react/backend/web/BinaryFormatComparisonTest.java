@@ -0,0 +1,156 @@
+package pw.react.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import pw.react.backend.dto.ReturnReservationDTO;
+import pw.react.backend.models.*;
+import pw.react.backend.utils.UserRole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/// Payload size and encode/decode time of JSON, CBOR and Smile for a page of reservations
+/// (with embedded user and spot) and a list of cars. Sizes are asserted, timings are logged.
+class BinaryFormatComparisonTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BinaryFormatComparisonTest.class);
+    private static final int ROUNDS = 200;
+
+    private final Map<String, ObjectMapper> mappers = Map.of(
+            "json", new Jackson2ObjectMapperBuilder().build(),
+            "cbor", new Jackson2ObjectMapperBuilder().factory(new CBORFactory()).build(),
+            "smile", new Jackson2ObjectMapperBuilder().factory(new SmileFactory()).build());
+
+    @Test
+    void reservationPage() throws Exception {
+        List<ReturnReservationDTO> page = reservations(100);
+        Map<String, Integer> sizes = compare("reservations", page, ReturnReservationDTO[].class);
+
+        ReturnReservationDTO[] decoded = mappers.get("cbor").readValue(mappers.get("cbor").writeValueAsBytes(page), ReturnReservationDTO[].class);
+        assertEquals(page.get(42).id(), decoded[42].id());
+        assertEquals(page.get(42).startTime(), decoded[42].startTime());
+        assertEquals(0, page.get(42).totalCost().compareTo(decoded[42].totalCost()));
+        assertEquals(page.get(42).user().getUsername(), decoded[42].user().getUsername());
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+    }
+
+    @Test
+    void carList() throws Exception {
+        List<Car> cars = cars(100);
+        Map<String, Integer> sizes = compare("cars", cars, Car[].class);
+
+        Car[] decoded = mappers.get("smile").readValue(mappers.get("smile").writeValueAsBytes(cars), Car[].class);
+        assertEquals(cars.get(7).getModel().getBrandName(), decoded[7].getModel().getBrandName());
+        assertEquals(cars.get(7).getLocation().getLatitude(), decoded[7].getLocation().getLatitude());
+        assertTrue(sizes.get("cbor") < sizes.get("json"));
+        assertTrue(sizes.get("smile") < sizes.get("json"));
+    }
+
+    private Map<String, Integer> compare(String name, Object value, Class<?> type) throws Exception {
+        Map<String, Integer> sizes = new TreeMap<>();
+        for (Map.Entry<String, ObjectMapper> entry : mappers.entrySet()) {
+            ObjectMapper mapper = entry.getValue();
+            byte[] bytes = mapper.writeValueAsBytes(value);
+            for (int i = 0; i < ROUNDS; i++) {
+                mapper.readValue(mapper.writeValueAsBytes(value), type);
+            }
+            long encode = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                mapper.writeValueAsBytes(value);
+            }
+            encode = System.nanoTime() - encode;
+            long decode = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                mapper.readValue(bytes, type);
+            }
+            decode = System.nanoTime() - decode;
+            sizes.put(entry.getKey(), bytes.length);
+            log.info("{} as {}: {} bytes, encode {} us, decode {} us", name, entry.getKey(), bytes.length,
+                    encode / ROUNDS / 1000, decode / ROUNDS / 1000);
+        }
+        return sizes;
+    }
+
+    private static List<ReturnReservationDTO> reservations(int count) {
+        ParkingArea area = new ParkingArea();
+        area.setId(1L);
+        area.setName("Politechnika");
+        area.setAddress("Plac Politechniki 1");
+        area.setCity("Warszawa");
+        area.setHourlyRate(new BigDecimal("6.50"));
+        area.setLatitude(new BigDecimal("52.220660"));
+        area.setLongitude(new BigDecimal("21.010370"));
+
+        List<ReturnReservationDTO> reservations = new ArrayList<>(count);
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 8, 0);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) i);
+            user.setUsername("user" + i);
+            user.setEmail("user" + i + "@example.com");
+            user.setFirstName("Anna");
+            user.setLastName("Kowalska");
+            user.setRole(UserRole.USER);
+
+            ParkingSpot spot = new ParkingSpot();
+            spot.setId((long) i);
+            spot.setSpotNumber("A" + i);
+            spot.setParkingArea(area);
+            spot.setIsAvailable(i % 2 == 0);
+
+            Reservation reservation = new Reservation();
+            reservation.setId((long) i);
+            reservation.setUser(user);
+            reservation.setParkingSpot(spot);
+            reservation.setStartTime(start.plusHours(i));
+            reservation.setEndTime(start.plusHours(i + 2));
+            reservation.setTotalCost(new BigDecimal("13.00"));
+            reservation.setCreatedAt(start.minusDays(1));
+            reservations.add(ReturnReservationDTO.fromModel(reservation));
+        }
+        return reservations;
+    }
+
+    private static List<Car> cars(int count) {
+        List<Car> cars = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Model model = new Model();
+            model.setId("model-" + i % 10);
+            model.setBrandName("Toyota");
+            model.setName("Corolla");
+            model.setProductionYear(2020 + i % 5);
+            model.setFuelType("Hybrid");
+            model.setFuelCapacity(43);
+            model.setSeatCount(5);
+            model.setDoorCount(5);
+            model.setDailyRate(150.0 + i);
+
+            Location location = new Location();
+            location.setId("location-" + i);
+            location.setFullAddress("ul. Marszałkowska " + i + ", Warszawa");
+            location.setLatitude(52.2297 + i / 1000.0);
+            location.setLongitude(21.0122 + i / 1000.0);
+
+            Car car = new Car();
+            car.setId("car-" + i);
+            car.setModel(model);
+            car.setLocation(location);
+            car.setImageUrl("https://images.example.com/cars/" + i + ".jpg");
+            cars.add(car);
+        }
+        return cars;
+    }
+}
@@ -0,0 +1,42 @@
+package pw.react.backend.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// With request timing off (the default) nothing of it is installed.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestTimingDisabledTest {
+
+    @Autowired
+    private ApplicationContext context;
+    @Autowired
+    private DataSource dataSource;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void leavesTheDataSourceAndConvertersAlone() throws Exception {
+        assertFalse(dataSource instanceof TimingDataSource, dataSource.getClass().getName());
+        assertEquals(0, context.getBeanNamesForType(RequestTimingFilter.class).length);
+        assertEquals(0, context.getBeanNamesForType(TimingJackson2HttpMessageConverter.class).length);
+
+        mockMvc.perform(get("/api/parking-spots/seek").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RequestTimingFilter.SERVER_TIMING));
+    }
+}
@@ -0,0 +1,68 @@
+package pw.react.backend.web;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.sql.DataSource;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/// The Server-Timing breakdown of a real request with `parkly.request-timing.enabled=true`.
+@SpringBootTest(properties = "parkly.request-timing.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RequestTimingTest {
+
+    private static final Pattern SERVER_TIMING = Pattern.compile(
+            "db;dur=(\\d+\\.\\d);desc=\"(\\d+) queries\", carly;dur=(\\d+\\.\\d);desc=\"(\\d+) calls\", "
+                    + "ser;dur=(\\d+\\.\\d), total;dur=(\\d+\\.\\d)");
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void wrapsTheDataSource() {
+        assertInstanceOf(TimingDataSource.class, dataSource);
+    }
+
+    @Test
+    void reportsQueriesCarlyAndSerialization() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/parking-spots/seek").param("size", "5"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        String header = result.getResponse().getHeader(RequestTimingFilter.SERVER_TIMING);
+        assertNotNull(header);
+        Matcher matcher = SERVER_TIMING.matcher(header);
+        assertTrue(matcher.matches(), header);
+        assertEquals(1, Integer.parseInt(matcher.group(2)), "one keyset query: " + header);
+        assertEquals(0, Integer.parseInt(matcher.group(4)), header);
+        assertEquals(0.0, Double.parseDouble(matcher.group(3)), header);
+        double db = Double.parseDouble(matcher.group(1));
+        double serialization = Double.parseDouble(matcher.group(5));
+        double total = Double.parseDouble(matcher.group(6));
+        assertTrue(db + serialization <= total + 0.1, header);
+    }
+
+    @Test
+    void timesResponsesWithoutABody() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/parking-areas/{id}", Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andReturn();
+
+        String header = result.getResponse().getHeader(RequestTimingFilter.SERVER_TIMING);
+        assertNotNull(header);
+        assertTrue(SERVER_TIMING.matcher(header).matches(), header);
+    }
+}
@@ -0,0 +1,139 @@
+package pw.react.backend.web;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import pw.react.backend.dao.UserRepository;
+import pw.react.backend.models.User;
+import pw.react.backend.services.SessionTokenService;
+import pw.react.backend.utils.UserRole;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/// Token verification and the role rules of SessionTokenFilter with `parkly.auth.enforce=true`.
+class SessionTokenFilterTest {
+
+    private final Map<Long, User> users = new HashMap<>(Map.of(
+            1L, user(1L, UserRole.ADMIN), 5L, user(5L, UserRole.USER), 6L, user(6L, UserRole.USER)));
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final SessionTokenService tokens = newService();
+    private final SessionTokenFilter filter = new SessionTokenFilter(tokens, new ObjectMapper().findAndRegisterModules(), true);
+
+    private final String user5 = token(5L, UserRole.USER);
+    private final String user6 = token(6L, UserRole.USER);
+    private final String admin = token(1L, UserRole.ADMIN);
+
+    @Test
+    void verifiesIssuedTokensAndRejectsTamperedOnes() {
+        SessionPrincipal principal = tokens.verify(user5).orElseThrow();
+        assertEquals(5L, principal.userId());
+        assertEquals(UserRole.USER, principal.role());
+
+        String payload = user5.substring(0, user5.indexOf('.'));
+        String forged = token(5L, UserRole.ADMIN);
+        assertTrue(tokens.verify(payload + forged.substring(forged.indexOf('.'))).isEmpty());
+        assertTrue(tokens.verify(user5 + "x").isEmpty());
+        assertTrue(tokens.verify("garbage").isEmpty());
+    }
+
+    @Test
+    void revokedTokensNoLongerVerify() throws Exception {
+        tokens.revoke(tokens.verify(user5).orElseThrow());
+        assertEquals(401, status("GET", "/api/reservations/1", user5));
+
+        tokens.revokeUser(users.get(6L));
+        assertEquals(401, status("GET", "/api/reservations/1", user6));
+    }
+
+    /// A new service with the same secret stands for a restart: nothing kept in memory helps it.
+    @Test
+    void userRevocationsSurviveARestart() throws InterruptedException {
+        tokens.revokeUser(users.get(6L));
+        users.get(1L).setRole(UserRole.USER);
+        users.remove(5L);
+
+        SessionTokenService restarted = newService();
+        assertTrue(restarted.verify(user6).isEmpty());
+        assertTrue(restarted.verify(admin).isEmpty());
+        assertTrue(restarted.verify(user5).isEmpty());
+
+        Thread.sleep(5);
+        String renewed = token(6L, UserRole.USER);
+        assertEquals(6L, restarted.verify(renewed).orElseThrow().userId());
+    }
+
+    @Test
+    void adminPathsNeedAnAdminWhateverTheirEncoding() throws Exception {
+        for (String path : new String[] {"/api/import/parking-areas", "/api;x=y/import/parking-areas",
+                "/api/import;x=y/parking-areas", "/api/%69mport/parking-areas", "/api/users/page/0"}) {
+            String method = path.contains("import") ? "POST" : "GET";
+            assertEquals(401, status(method, path, null), path);
+            assertEquals(403, status(method, path, user5), path);
+            assertEquals(200, status(method, path, admin), path);
+        }
+    }
+
+    @Test
+    void signUpAndLoginArePublic() throws Exception {
+        assertEquals(200, status("POST", "/api/users", null));
+        assertEquals(200, status("POST", "/api/users/login", null));
+        assertEquals(200, status("GET", "/api/parking-areas/page/0", null));
+        assertEquals(401, status("POST", "/api/parking-areas", null));
+        assertEquals(401, status("GET", "/api/users/5", null));
+    }
+
+    @Test
+    void usersOnlyWriteThemselves() throws Exception {
+        for (String method : new String[] {"PUT", "DELETE"}) {
+            assertEquals(401, status(method, "/api/users/5", null));
+            assertEquals(200, status(method, "/api/users/5", user5));
+            assertEquals(403, status(method, "/api/users/5", user6));
+            assertEquals(403, status(method, "/api/users;x=y/5", user6));
+            assertEquals(200, status(method, "/api/users/5", admin));
+        }
+        assertEquals(200, status("GET", "/api/users/5", user6));
+    }
+
+    private int status(String method, String uri, String token) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        if (token != null) {
+            request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (chain.getRequest() == null) {
+            assertNotEquals(200, response.getStatus());
+        }
+        return response.getStatus();
+    }
+
+    private SessionTokenService newService() {
+        when(userRepository.findById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(users.get(invocation.<Long>getArgument(0))));
+        return new SessionTokenService(userRepository, "test-secret", Duration.ofHours(1)) {{
+            init();
+        }};
+    }
+
+    private String token(Long userId, UserRole role) {
+        return tokens.issue(user(userId, role)).token();
+    }
+
+    private static User user(Long userId, UserRole role) {
+        User user = new User();
+        user.setId(userId);
+        user.setRole(role);
+        return user;
+    }
+}